@@ -1,17 +1,24 @@
 package com.task;
 
 import com.task.pipeline.EntitiesProcessor;
+import com.task.pipeline.processor.LargeLimitOptimizedProcessor;
+import com.task.pipeline.processor.SharedCutoff;
 import com.task.pipeline.processor.SpaceOptimizedProcessor;
 import com.task.pipeline.processor.TimeOptimizedConcurrentGroupingProcessor;
 import com.task.pipeline.processor.TimeOptimizedForkJoinGroupingProcessor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import picocli.CommandLine;
 
+import java.io.PrintStream;
+import java.lang.reflect.Constructor;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 @Getter
 @CommandLine.Command(name = "csv-processor", sortOptions = false, showDefaultValues = true)
@@ -19,6 +26,14 @@ public class Configuration {
 
     @CommandLine.Option(names = {"-i", "--input"}, required = true, description = "Input directory path")
     private Path inputDir;
+    @CommandLine.Option(names = {"-r", "--recursive"}, description = "Search input files in subdirectories")
+    private boolean recursive;
+    @CommandLine.Option(names = {"--include"}, defaultValue = "**.csv",
+            description = "Glob pattern of input files paths relative to input directory")
+    private String includePattern;
+    @CommandLine.Option(names = {"--exclude"},
+            description = "Glob pattern of input files or subdirectories paths relative to input directory to skip")
+    private List<String> excludePatterns = new ArrayList<>();
     @CommandLine.Option(names = {"-o", "--output"}, required = true, description = "Output file path")
     private Path outputFile;
     @CommandLine.Option(names = {"-g", "--group"}, defaultValue = "20", description = "Group by ID limit")
@@ -30,51 +45,159 @@ public class Configuration {
                     "Valid values: ${COMPLETION-CANDIDATES}\n" +
                     " TOCG: Time-optimized with concurrent grouping\n" +
                     " TOFJG: Time-optimized with fork-join grouping\n" +
-                    " SO: Space-optimized")
+                    " SO: Space-optimized\n" +
+                    " LLO: Optimized for large total limits")
     private Processor processor;
+    @CommandLine.Option(names = {"--condition"}, description = "Select only products in this condition")
+    private String condition;
+    @CommandLine.Option(names = {"--state"}, split = ",", description = "Select only products in these states")
+    private List<String> states = new ArrayList<>();
+    @CommandLine.Option(names = {"--min-price"}, description = "Select only products not cheaper than this")
+    private Double minPrice;
+    @CommandLine.Option(names = {"--max-price"}, description = "Select only products not more expensive than this")
+    private Double maxPrice;
+
+    @CommandLine.Option(names = {"-d", "--deadline"}, defaultValue = "0",
+            description = "Processing time limit after which the result is built from input processed so far, " +
+                    "milliseconds (0 for no limit)")
+    private long deadlineMillis;
+    @CommandLine.Option(names = {"--sample"}, defaultValue = "0",
+            description = "Fraction of input size to sample before processing to estimate a price cutoff, " +
+                    "rows over which are rejected at once (0 for no sampling)")
+    private double sampleFraction;
+    @CommandLine.Option(names = {"--sorted-input"}, defaultValue = "NO",
+            description = "Input files sorted by price, reading of which ends once prices exceed the output ones " +
+                    "(SO and LLO processors only)\n" +
+                    "Valid values: ${COMPLETION-CANDIDATES}\n" +
+                    " NO: No files are sorted\n" +
+                    " AUTO: Files with sorted first rows\n" +
+                    " ALL: All files are sorted")
+    private SortedInput sortedInput;
+    @CommandLine.Option(names = {"--checkpoint-interval"}, defaultValue = "0",
+            description = "Interval of saving the intermediate result and the list of processed files " +
+                    "to resume from after a failure, seconds (0 for no checkpoints)")
+    private long checkpointIntervalSeconds;
+    @CommandLine.Option(names = {"--checkpoint-file"},
+            description = "Checkpoint file path (default: output file path with .checkpoint suffix)")
+    private Path checkpointFile;
+    @CommandLine.Option(names = {"--resume"},
+            description = "Skip files processed before the checkpoint of an interrupted run with the same input " +
+                    "and limits, and continue from its intermediate result")
+    private boolean resume;
+    @CommandLine.Option(names = {"--read-buffer"}, defaultValue = "1048576",
+            description = "Size of each read-ahead buffer per input file, bytes")
+    private int readBufferSize;
+    @CommandLine.Option(names = {"--read-ahead"}, defaultValue = "2",
+            description = "Number of read-ahead buffers per input file")
+    private int readAheadDepth;
 
     @CommandLine.Option(names = {"-h", "--help"}, usageHelp = true, description = "Display this help message")
     private boolean usageHelpRequested;
 
     public static Configuration parse(String[] args) {
+        return parse(args, System.out, System::exit);
+    }
+
+    /**
+     * @param exit called with exit status if usage help is requested or arguments are invalid
+     * @return parsed configuration, or null if exit has been called
+     */
+    public static Configuration parse(String[] args, PrintStream out, IntConsumer exit) {
         Configuration configuration = new Configuration();
         CommandLine commandLine = new CommandLine(configuration).setCaseInsensitiveEnumValuesAllowed(true);
         try {
             commandLine.parseArgs(args);
             if (commandLine.isUsageHelpRequested()) {
-                commandLine.usage(System.out);
-                System.exit(0);
+                commandLine.usage(out);
+                exit.accept(0);
+                return null;
             }
+            configuration.validate(commandLine);
         } catch (CommandLine.ParameterException e) {
-            System.out.println("Configuration parsing error: " + e.getMessage());
-            commandLine.usage(System.out);
-            System.exit(1);
+            out.println("Configuration parsing error: " + e.getMessage());
+            commandLine.usage(out);
+            exit.accept(1);
+            return null;
         }
         return configuration;
     }
 
+    private void validate(CommandLine commandLine) {
+        if (resume && checkpointIntervalSeconds <= 0) {
+            throw new CommandLine.ParameterException(commandLine, "--resume requires --checkpoint-interval");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new CommandLine.ParameterException(commandLine, "--min-price must not exceed --max-price");
+        }
+        if (sampleFraction < 0 || sampleFraction > 1) {
+            throw new CommandLine.ParameterException(commandLine, "--sample must be between 0 and 1");
+        }
+        if (readBufferSize <= 0 || readAheadDepth <= 0) {
+            throw new CommandLine.ParameterException(commandLine, "--read-buffer and --read-ahead must be positive");
+        }
+        int exclusiveModes = (deadlineMillis > 0 ? 1 : 0) + (checkpointIntervalSeconds > 0 ? 1 : 0)
+                + (sampleFraction > 0 ? 1 : 0);
+        if (exclusiveModes > 1) {
+            throw new CommandLine.ParameterException(commandLine,
+                    "Only one of --deadline, --checkpoint-interval and --sample can be used");
+        }
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile != null
+                ? checkpointFile : outputFile.resolveSibling(outputFile.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Resolves relative input and output paths against the given directory instead of the current one.
+     */
+    public void resolvePaths(@NonNull Path workingDir) {
+        inputDir = workingDir.resolve(inputDir);
+        outputFile = workingDir.resolve(outputFile);
+        if (checkpointFile != null) {
+            checkpointFile = workingDir.resolve(checkpointFile);
+        }
+    }
+
 
     @Getter
-    @RequiredArgsConstructor
     public enum Processor {
 
         TOCG(TimeOptimizedConcurrentGroupingProcessor.class),
         TOFJG(TimeOptimizedForkJoinGroupingProcessor.class),
-        SO(SpaceOptimizedProcessor.class);
+        SO(SpaceOptimizedProcessor.class),
+        LLO(LargeLimitOptimizedProcessor.class);
 
         private final Class<? extends EntitiesProcessor> impl;
+        @Getter(AccessLevel.NONE)
+        private final Constructor<? extends EntitiesProcessor> constructor; // resolved once, as queries may be served repeatedly
+
+        Processor(Class<? extends EntitiesProcessor> impl) {
+            this.impl = impl;
+            try {
+                this.constructor = impl.getDeclaredConstructor(
+                        Function.class, Comparator.class, Function.class, SharedCutoff.class, int.class, int.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
 
         @SuppressWarnings("unchecked")
         public <T> EntitiesProcessor<T> instantiate(@NonNull Function<? super T, ?> idMapper,
                                                     @NonNull Comparator<? super T> comparator,
+                                                    @NonNull Function<? super T, ? extends T> materializer,
+                                                    SharedCutoff<T> sharedCutoff,
                                                     int groupLimit, int limit) {
             try {
-                return impl.getDeclaredConstructor(Function.class, Comparator.class, int.class, int.class)
-                        .newInstance(idMapper, comparator, groupLimit, limit);
+                return constructor.newInstance(idMapper, comparator, materializer, sharedCutoff, groupLimit, limit);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
         }
     }
 
+    public enum SortedInput {
+        NO, AUTO, ALL
+    }
+
 }
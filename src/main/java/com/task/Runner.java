@@ -1,37 +1,150 @@
 package com.task;
 
 import com.task.entity.Product;
+import com.task.entity.ProductFilter;
+import com.task.entity.ProductFlyweight;
+import com.task.entity.ProductView;
 import com.task.pipeline.EntitiesPipeline;
+import com.task.pipeline.EntitiesProducer;
+import com.task.pipeline.checkpoint.Checkpointing;
+import com.task.pipeline.checkpoint.FileCheckpointStore;
 import com.task.pipeline.consumer.ToCsvFileConsumer;
+import com.task.pipeline.processor.SharedCutoff;
+import com.task.pipeline.producer.CsvCursorRecordsReader;
 import com.task.pipeline.producer.FromDirCsvFilesProducer;
+import com.task.pipeline.producer.ParallelFileFinder;
+import com.task.pipeline.producer.SortedInputCutoff;
+import com.task.pipeline.sampling.SampledCutoffEstimator;
 
+import java.io.PrintStream;
+import java.time.Duration;
 import java.util.Comparator;
 
 public class Runner {
 
+    public static final Comparator<ProductView> PRODUCTS_COMPARATOR =
+            Comparator.comparingDouble(ProductView::getPrice)
+                    .thenComparingInt(ProductView::getId)
+                    .thenComparing(ProductView::getCondition)
+                    .thenComparing(ProductView::getState);
+    /**
+     * Number of first rows of an input file which must be sorted by price for the file to be read as sorted
+     */
+    private static final int SORTED_INPUT_PROBE_SIZE = 1000;
+
     public static void main(String[] args) {
-        EntitiesPipeline<Product> pipeline = configurePipeline(Configuration.parse(args));
-        System.out.println("Processing...");
+        Configuration configuration = Configuration.parse(args);
+        SharedCutoff<ProductView> sharedCutoff = new SharedCutoff<>(PRODUCTS_COMPARATOR);
+        FromDirCsvFilesProducer<ProductView> producer = configureProducer(configuration, sharedCutoff);
+        if (!execute(configurePipeline(configuration, producer, sharedCutoff), producer, producer.getCoverage(),
+                System.out)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param filesProducer producer reading input files, which input waiting time is printed after processing
+     * @param coverage       input coverage of the producer of the pipeline, printed after processing
+     * @return whether the pipeline has been executed successfully
+     */
+    public static boolean execute(EntitiesPipeline<ProductView> pipeline, FromDirCsvFilesProducer<?> filesProducer,
+                                  Object coverage, PrintStream out) {
+        out.println("Processing...");
         try {
             pipeline.execute();
-            System.out.println("Processed successfully");
+            out.println("Processed successfully");
+            out.println("Time spent waiting for input: " + filesProducer.getIoWaitTime().toMillis() + " ms");
+            out.println("Input coverage: " + coverage);
+            return true;
         } catch (Exception e) {
-            System.out.println("Processing error: " + e);
-            System.exit(1);
+            out.println("Processing error: " + e);
+            return false;
         }
     }
 
-    private static EntitiesPipeline<Product> configurePipeline(Configuration configuration) {
+    public static FromDirCsvFilesProducer<ProductView> configureProducer(Configuration configuration) {
+        return configureProducer(configuration, null);
+    }
+
+    /**
+     * @param sharedCutoff cutoff of the processor to end reading of sorted input files by, if any
+     */
+    public static FromDirCsvFilesProducer<ProductView> configureProducer(Configuration configuration,
+                                                                         SharedCutoff<ProductView> sharedCutoff) {
+        return new FromDirCsvFilesProducer<>(
+                new CsvCursorRecordsReader<>(ProductFlyweight::new, configureFilter(configuration)),
+                configureFileFinder(configuration),
+                configuration.getReadBufferSize(), configuration.getReadAheadDepth(),
+                sharedCutoff == null ? null : configureSortedInputCutoff(configuration.getSortedInput(), sharedCutoff));
+    }
+
+    private static SortedInputCutoff<ProductView> configureSortedInputCutoff(Configuration.SortedInput sortedInput,
+                                                                             SharedCutoff<ProductView> sharedCutoff) {
+        if (sortedInput == Configuration.SortedInput.NO) {
+            return null;
+        }
+        return new SortedInputCutoff<>(ProductView::getPrice, () -> {
+            ProductView cutoff = sharedCutoff.get();
+            return cutoff == null ? Double.POSITIVE_INFINITY : cutoff.getPrice();
+        }, sortedInput == Configuration.SortedInput.AUTO ? SORTED_INPUT_PROBE_SIZE : 0);
+    }
+
+    public static ProductFilter configureFilter(Configuration configuration) {
+        return new ProductFilter(configuration.getCondition(), configuration.getStates(),
+                configuration.getMinPrice() == null ? Double.NEGATIVE_INFINITY : configuration.getMinPrice(),
+                configuration.getMaxPrice() == null ? Double.POSITIVE_INFINITY : configuration.getMaxPrice());
+    }
+
+    public static ParallelFileFinder configureFileFinder(Configuration configuration) {
+        return ParallelFileFinder.of(configuration.getInputDir(), configuration.isRecursive(),
+                configuration.getIncludePattern(), configuration.getExcludePatterns());
+    }
+
+    public static EntitiesPipeline<ProductView> configurePipeline(Configuration configuration,
+                                                                  EntitiesProducer<ProductView> producer) {
+        return configurePipeline(configuration, producer, null);
+    }
+
+    /**
+     * @param sharedCutoff receiver of the processor's cutoff, if any
+     */
+    public static EntitiesPipeline<ProductView> configurePipeline(Configuration configuration,
+                                                                  EntitiesProducer<ProductView> producer,
+                                                                  SharedCutoff<ProductView> sharedCutoff) {
         return new EntitiesPipeline<>(
-                FromDirCsvFilesProducer.withDefaultFormat(Product::parse, configuration.getInputDir()),
+                producer,
                 configuration.getProcessor().instantiate(
-                        Product::getId,
-                        Comparator.comparingDouble(Product::getPrice)
-                                .thenComparingInt(Product::getId)
-                                .thenComparing(Product::getCondition)
-                                .thenComparing(Product::getState),
+                        ProductView::getId,
+                        PRODUCTS_COMPARATOR,
+                        ProductView::toProduct,
+                        sharedCutoff,
                         configuration.getGroupLimit(), configuration.getLimit()),
-                ToCsvFileConsumer.withDefaultFormat(Product::asFieldsArray, configuration.getOutputFile()));
+                ToCsvFileConsumer.withDefaultFormat(product -> product.toProduct().asFieldsArray(),
+                        configuration.getOutputFile()),
+                configuration.getDeadlineMillis() > 0 ? Duration.ofMillis(configuration.getDeadlineMillis()) : null,
+                configuration.getCheckpointIntervalSeconds() > 0 ? configureCheckpointing(configuration) : null,
+                configuration.getSampleFraction() > 0 ? configureCutoffEstimator(configuration) : null);
+    }
+
+    private static SampledCutoffEstimator<ProductView, Integer> configureCutoffEstimator(Configuration configuration) {
+        return new SampledCutoffEstimator<>(configureProducer(configuration),
+                ProductView::getId, PRODUCTS_COMPARATOR, ProductView::toProduct,
+                configuration.getGroupLimit(), configuration.getLimit(), configuration.getSampleFraction());
+    }
+
+    private static Checkpointing<ProductView> configureCheckpointing(Configuration configuration) {
+        String query = String.join(" ", configuration.getInputDir().toAbsolutePath().normalize().toString(),
+                "recursive=" + configuration.isRecursive(),
+                "include=" + configuration.getIncludePattern(),
+                "exclude=" + configuration.getExcludePatterns(),
+                "group=" + configuration.getGroupLimit(),
+                "limit=" + configuration.getLimit(),
+                configureFilter(configuration).toString());
+        return new Checkpointing<>(
+                new FileCheckpointStore<>(configuration.getCheckpointFile(), query,
+                        (product, out) -> product.toProduct().writeTo(out), Product::readFrom),
+                Duration.ofSeconds(configuration.getCheckpointIntervalSeconds()),
+                configuration.isResume());
     }
 
 }
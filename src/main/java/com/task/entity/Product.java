@@ -5,9 +5,13 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVRecord;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 @Getter
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-public class Product {
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class Product implements ProductView {
 
     private final int id;
     private final String name;
@@ -25,6 +29,23 @@ public class Product {
         );
     }
 
+    public static Product readFrom(DataInput in) throws IOException {
+        return new Product(in.readInt(), in.readUTF(), in.readUTF(), in.readUTF(), in.readDouble());
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeUTF(name);
+        out.writeUTF(condition);
+        out.writeUTF(state);
+        out.writeDouble(price);
+    }
+
+    @Override
+    public Product toProduct() {
+        return this;
+    }
+
     public Object[] asFieldsArray() {
         return new Object[]{id, name, condition, state, price};
     }
@@ -0,0 +1,48 @@
+package com.task.entity;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Conditions on product fields, which are checked against the raw fields of a flyweight's record,
+ * so that products which do not match never get their string fields decoded.
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class ProductFilter implements Predicate<ProductFlyweight> {
+
+    /**
+     * Required condition, or null for any
+     */
+    private final String condition;
+    /**
+     * Allowed states, or empty for any
+     */
+    @NonNull
+    private final List<String> states;
+    private final double minPrice;
+    private final double maxPrice;
+
+    @Override
+    public boolean test(ProductFlyweight product) {
+        return product.getPrice() >= minPrice && product.getPrice() <= maxPrice
+                && (condition == null || product.conditionEquals(condition))
+                && (states.isEmpty() || isStateAllowed(product));
+    }
+
+    private boolean isStateAllowed(ProductFlyweight product) {
+        for (String state : states) {
+            if (product.stateEquals(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.task.entity;
+
+import com.task.pipeline.producer.CsvRecordCursor;
+import com.task.pipeline.producer.CsvRecordFlyweight;
+import lombok.NonNull;
+
+/**
+ * Product view over the current record of a cursor. ID and price are parsed in place when the record is loaded,
+ * string fields are only read on request, and a {@link Product} is built only by {@link #toProduct()}.
+ */
+public class ProductFlyweight implements ProductView, CsvRecordFlyweight {
+
+    private static final int FIELDS_COUNT = 5;
+
+    private final CsvRecordCursor cursor;
+
+    private int id;
+    private double price;
+
+    public ProductFlyweight(@NonNull CsvRecordCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public boolean load() {
+        if (cursor.getFieldsCount() < FIELDS_COUNT) {
+            return false;
+        }
+        try {
+            id = cursor.getInt(0);
+            price = cursor.getDouble(4);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return cursor.getString(1);
+    }
+
+    @Override
+    public String getCondition() {
+        return cursor.getString(2);
+    }
+
+    @Override
+    public String getState() {
+        return cursor.getString(3);
+    }
+
+    public boolean conditionEquals(@NonNull CharSequence condition) {
+        return cursor.fieldEquals(2, condition);
+    }
+
+    public boolean stateEquals(@NonNull CharSequence state) {
+        return cursor.fieldEquals(3, state);
+    }
+
+    @Override
+    public double getPrice() {
+        return price;
+    }
+
+    @Override
+    public Product toProduct() {
+        return new Product(id, getName(), getCondition(), getState(), price);
+    }
+
+}
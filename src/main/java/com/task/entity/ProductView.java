@@ -0,0 +1,22 @@
+package com.task.entity;
+
+/**
+ * Read-only view of product fields, implemented both by products and by reusable flyweights over input records.
+ */
+public interface ProductView {
+
+    int getId();
+
+    String getName();
+
+    String getCondition();
+
+    String getState();
+
+    double getPrice();
+
+    /**
+     * @return product with the same fields, safe to retain
+     */
+    Product toProduct();
+}
@@ -0,0 +1,15 @@
+package com.task.pipeline;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Producer able to end its input early, giving the entities read before the deadline.
+ */
+public interface DeadlineBoundedProducer<T> extends EntitiesProducer<T> {
+
+    /**
+     * Produces entities until the deadline passes, then the stream ends and releases any input in progress.
+     */
+    Stream<? extends T> produce(Instant deadline) throws Exception;
+}
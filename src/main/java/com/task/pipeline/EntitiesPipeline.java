@@ -1,24 +1,160 @@
 package com.task.pipeline;
 
+import com.task.pipeline.checkpoint.Checkpoint;
+import com.task.pipeline.checkpoint.CheckpointStore;
+import com.task.pipeline.checkpoint.Checkpointing;
+import com.task.pipeline.sampling.SampledCutoffEstimator;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-@RequiredArgsConstructor
 public class EntitiesPipeline<T> {
 
-    @NonNull
     private final EntitiesProducer<T> producer;
-    @NonNull
     private final EntitiesProcessor<T> processor;
-    @NonNull
     private final EntitiesConsumer<T> consumer;
+    /**
+     * Time limit for input processing, after which the result is built from input processed so far,
+     * which requires a deadline bounded producer
+     */
+    private final Duration deadline;
+    /**
+     * Periodic saving of the intermediate result, which requires a partitioned producer and excludes the deadline
+     */
+    private final Checkpointing<T> checkpointing;
+    /**
+     * Pre-pass estimating the cutoff, entities over which are rejected before processing,
+     * which requires a partitioned input and excludes the deadline and checkpointing
+     */
+    private final SampledCutoffEstimator<T, ?> cutoffEstimator;
+
+    public EntitiesPipeline(EntitiesProducer<T> producer, EntitiesProcessor<T> processor, EntitiesConsumer<T> consumer) {
+        this(producer, processor, consumer, null, null, null);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the producer does not support the deadline or checkpointing
+     */
+    public EntitiesPipeline(@NonNull EntitiesProducer<T> producer, @NonNull EntitiesProcessor<T> processor,
+                            @NonNull EntitiesConsumer<T> consumer, Duration deadline,
+                            Checkpointing<T> checkpointing, SampledCutoffEstimator<T, ?> cutoffEstimator) {
+        if (deadline != null && !(producer instanceof DeadlineBoundedProducer)) {
+            throw new IllegalArgumentException(producer.getClass().getSimpleName() + " does not support deadlines");
+        }
+        if (checkpointing != null && !(producer instanceof PartitionedProducer)) {
+            throw new IllegalArgumentException(producer.getClass().getSimpleName() + " does not support partitioning");
+        }
+        this.producer = producer;
+        this.processor = processor;
+        this.consumer = consumer;
+        this.deadline = deadline;
+        this.checkpointing = checkpointing;
+        this.cutoffEstimator = cutoffEstimator;
+    }
 
     public void execute() throws Exception {
-        try (Stream<? extends T> input = producer.produce();
+        if (checkpointing != null) {
+            executeWithCheckpoints();
+        } else if (cutoffEstimator != null) {
+            executeWithCutoff();
+        } else {
+            executeOnce();
+        }
+    }
+
+    private void executeOnce() throws Exception {
+        try (Stream<? extends T> input = produce();
              Stream<? extends T> output = processor.process(input)) {
             consumer.consume(output);
         }
     }
+
+    private Stream<? extends T> produce() throws Exception {
+        return deadline == null
+                ? producer.produce() : ((DeadlineBoundedProducer<T>) producer).produce(Instant.now().plus(deadline));
+    }
+
+    /**
+     * Processes the input filtered by the estimated cutoff, and processes it again without filtering
+     * if too few entities have passed the filter to fill the result.
+     */
+    private void executeWithCutoff() throws Exception {
+        if (deadline != null) {
+            throw new IllegalStateException("Cutoff estimation can not be combined with a deadline");
+        }
+        Predicate<T> filter = cutoffEstimator.estimateFilter();
+        if (filter != null) {
+            List<T> result;
+            try (Stream<? extends T> input = producer.produce();
+                 Stream<? extends T> output = processor.process(input.filter(filter))) {
+                result = output.collect(Collectors.toList());
+            }
+            if (result.size() >= cutoffEstimator.getTotalLimit()) {
+                try (Stream<? extends T> output = result.stream()) {
+                    consumer.consume(output);
+                }
+                return;
+            }
+        }
+        executeOnce();
+    }
+
+    /**
+     * Processes the input in batches of partitions, each one together with the result of the previous batches,
+     * which gives the same result as processing all of the input at once, as an entity left out of a limited result
+     * can not get into it when more entities are added. The result is saved after every batch.
+     */
+    private void executeWithCheckpoints() throws Exception {
+        if (deadline != null || cutoffEstimator != null) {
+            throw new IllegalStateException("Checkpointing can not be combined with a deadline or cutoff estimation");
+        }
+        CheckpointStore<T> store = checkpointing.getStore();
+        Checkpoint<T> checkpoint = checkpointing.isResume() ? store.load() : null;
+        Set<String> completed = checkpoint == null
+                ? new HashSet<>() : new HashSet<>(checkpoint.getCompletedPartitions());
+        List<T> result = checkpoint == null ? Collections.emptyList() : checkpoint.getResult();
+        PartitionedProducer<T> partitionedProducer = (PartitionedProducer<T>) producer;
+        List<String> pending = partitionedProducer.partitions().stream()
+                .filter(partition -> !completed.contains(partition))
+                .collect(Collectors.toList());
+        int batchSize = ForkJoinPool.getCommonPoolParallelism();
+        for (int from = 0; from < pending.size(); ) {
+            List<String> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            long startNanos = System.nanoTime();
+            result = process(partitionedProducer, result, batch);
+            completed.addAll(batch);
+            store.save(new Checkpoint<>(completed, result));
+            from += batch.size();
+            batchSize = nextBatchSize(batch.size(), System.nanoTime() - startNanos);
+        }
+        try (Stream<? extends T> output = result.stream()) {
+            consumer.consume(output);
+        }
+        store.delete();
+    }
+
+    private List<T> process(PartitionedProducer<T> partitionedProducer, List<T> previousResult, List<String> batch)
+            throws Exception {
+        try (Stream<? extends T> input = Stream.concat(previousResult.stream(), partitionedProducer.produce(batch));
+             Stream<? extends T> output = processor.process(input)) {
+            return output.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return size of the batch expected to take a checkpoint interval, judging by the last batch processing time
+     */
+    private int nextBatchSize(int lastBatchSize, long lastBatchNanos) {
+        double batchesPerInterval = (double) checkpointing.getInterval().toNanos() / Math.max(lastBatchNanos, 1);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, lastBatchSize * batchesPerInterval));
+    }
 }
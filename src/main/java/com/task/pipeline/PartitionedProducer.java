@@ -0,0 +1,25 @@
+package com.task.pipeline;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Producer of input consisting of independently readable parts, any subset of which can be read on its own.
+ */
+public interface PartitionedProducer<T> extends EntitiesProducer<T> {
+
+    /**
+     * @return keys of independently readable parts of the input, such as files, which stay the same across runs
+     */
+    List<String> partitions() throws Exception;
+
+    /**
+     * @return size of the given part of the input, such as bytes, proportional to the number of its entities on average
+     */
+    long partitionSize(String partition) throws Exception;
+
+    /**
+     * Produces entities of the given parts of the input only.
+     */
+    Stream<? extends T> produce(List<String> partitions) throws Exception;
+}
@@ -0,0 +1,23 @@
+package com.task.pipeline.checkpoint;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Intermediate state of a pipeline: the result built from the input partitions processed so far.
+ *
+ * @param <T> type of entities
+ */
+@Getter
+@RequiredArgsConstructor
+public class Checkpoint<T> {
+
+    @NonNull
+    private final Set<String> completedPartitions;
+    @NonNull
+    private final List<T> result;
+}
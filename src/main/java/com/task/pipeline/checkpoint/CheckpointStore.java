@@ -0,0 +1,15 @@
+package com.task.pipeline.checkpoint;
+
+import java.io.IOException;
+
+public interface CheckpointStore<T> {
+
+    /**
+     * @return the last saved checkpoint, or null if there is none
+     */
+    Checkpoint<T> load() throws IOException;
+
+    void save(Checkpoint<? extends T> checkpoint) throws IOException;
+
+    void delete() throws IOException;
+}
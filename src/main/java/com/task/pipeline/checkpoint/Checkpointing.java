@@ -0,0 +1,24 @@
+package com.task.pipeline.checkpoint;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+@Getter
+@RequiredArgsConstructor
+public class Checkpointing<T> {
+
+    @NonNull
+    private final CheckpointStore<T> store;
+    /**
+     * Approximate time between checkpoints, which bounds the work lost on failure
+     */
+    @NonNull
+    private final Duration interval;
+    /**
+     * Whether to continue from the checkpoint found in the store instead of starting over
+     */
+    private final boolean resume;
+}
@@ -0,0 +1,103 @@
+package com.task.pipeline.checkpoint;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a checkpoint in a binary file, which is replaced atomically on save,
+ * so that a failure while saving leaves the previous checkpoint intact.
+ * The checkpoint is tagged with a query description and is not loaded for a different query.
+ */
+@RequiredArgsConstructor
+public class FileCheckpointStore<T> implements CheckpointStore<T> {
+
+    private static final int MAGIC = 0x43505431;
+
+    @NonNull
+    private final Path file;
+    /**
+     * Description of the input and the limits the checkpointed result is valid for
+     */
+    @NonNull
+    private final String query;
+    @NonNull
+    private final EntityWriter<? super T> entityWriter;
+    @NonNull
+    private final EntityReader<? extends T> entityReader;
+
+    @Override
+    public Checkpoint<T> load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            if (!query.equals(in.readUTF())) {
+                throw new IOException("Checkpoint " + file + " has been saved for different input or limits");
+            }
+            int partitionsCount = in.readInt();
+            Set<String> completedPartitions = new HashSet<>(partitionsCount * 2);
+            for (int i = 0; i < partitionsCount; i++) {
+                completedPartitions.add(in.readUTF());
+            }
+            int resultSize = in.readInt();
+            List<T> result = new ArrayList<>(resultSize);
+            for (int i = 0; i < resultSize; i++) {
+                result.add(entityReader.read(in));
+            }
+            return new Checkpoint<>(completedPartitions, result);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void save(@NonNull Checkpoint<? extends T> checkpoint) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(query);
+            out.writeInt(checkpoint.getCompletedPartitions().size());
+            for (String partition : checkpoint.getCompletedPartitions()) {
+                out.writeUTF(partition);
+            }
+            out.writeInt(checkpoint.getResult().size());
+            for (T entity : checkpoint.getResult()) {
+                entityWriter.write(entity, out);
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @FunctionalInterface
+    public interface EntityWriter<T> {
+
+        void write(T entity, DataOutput out) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface EntityReader<T> {
+
+        T read(DataInput in) throws IOException;
+    }
+}
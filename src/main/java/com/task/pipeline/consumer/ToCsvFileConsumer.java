@@ -6,8 +6,11 @@ import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.function.Function;
@@ -17,6 +20,7 @@ import java.util.stream.Stream;
 public class ToCsvFileConsumer<T> implements EntitiesConsumer<T> {
 
     private static final CSVFormat DEFAULT_CSV_FORMAT = CSVFormat.DEFAULT;
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
 
     @NonNull
     private final Function<? super T, Object[]> fromEntityMapper;
@@ -24,6 +28,11 @@ public class ToCsvFileConsumer<T> implements EntitiesConsumer<T> {
     private final Path file;
     @NonNull
     private final CSVFormat format;
+    private final int bufferSize;
+
+    public ToCsvFileConsumer(Function<? super T, Object[]> fromEntityMapper, Path file, CSVFormat format) {
+        this(fromEntityMapper, file, format, DEFAULT_BUFFER_SIZE);
+    }
 
     public static <T> ToCsvFileConsumer<T> withDefaultFormat(Function<? super T, Object[]> fromEntityMapper, Path file) {
         return new ToCsvFileConsumer<>(fromEntityMapper, file, DEFAULT_CSV_FORMAT);
@@ -32,7 +41,8 @@ public class ToCsvFileConsumer<T> implements EntitiesConsumer<T> {
     @Override
     public void consume(Stream<? extends T> entities) throws IOException {
         try (Stream<Object[]> records = entities.map(fromEntityMapper);
-             Writer writer = Files.newBufferedWriter(file);
+             Writer writer = new BufferedWriter(
+                     new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), bufferSize);
              CSVPrinter printer = new CSVPrinter(writer, format)) {
             for (Object[] record : (Iterable<Object[]>) records::iterator) {
                 printer.printRecord(record);
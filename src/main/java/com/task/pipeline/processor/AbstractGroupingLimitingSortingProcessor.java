@@ -2,6 +2,8 @@ package com.task.pipeline.processor;
 
 import com.task.pipeline.EntitiesProcessor;
 import com.task.pipeline.processor.collection.LimitedSortedSet;
+import com.task.pipeline.processor.collection.SortedRunsAccumulator;
+import com.task.pipeline.processor.collection.SortedRunsMerger;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,9 @@ public abstract class AbstractGroupingLimitingSortingProcessor<T, ID> implements
     private final Function<? super T, ? extends ID> idMapper;
     @NonNull
     private final Comparator<? super T> comparator;
+    @NonNull
+    private final Function<? super T, ? extends T> materializer;
+    private final SharedCutoff<T> sharedCutoff;
     private final int groupLimit;
     private final int totalLimit;
 
@@ -36,10 +41,23 @@ public abstract class AbstractGroupingLimitingSortingProcessor<T, ID> implements
     protected abstract Stream<? extends T> groupLimitSort(Stream<? extends T> entities);
 
     protected Stream<? extends T> limitSort(Stream<? extends T> entities) {
+        SortedRunsMerger<T, ID> merger = new SortedRunsMerger<>(comparator, totalLimit);
         return entities.parallel().collect(Collector.of(
-                () -> new LimitedSortedSet<T>(comparator, totalLimit),
-                LimitedSortedSet::add, LimitedSortedSet::merge, LimitedSortedSet::stream,
+                () -> new SortedRunsAccumulator<T>(new LimitedSortedSet<>(comparator, materializer, totalLimit), merger),
+                this::accumulate, SortedRunsAccumulator::combine, SortedRunsAccumulator::stream,
                 Collector.Characteristics.UNORDERED));
     }
 
+    protected void accumulate(SortedRunsAccumulator<T> accumulator, T entity) {
+        if (accumulator.add(entity)) {
+            publishCutoff(accumulator.getCutoff());
+        }
+    }
+
+    protected void publishCutoff(T candidate) {
+        if (sharedCutoff != null && candidate != null) {
+            sharedCutoff.offer(candidate);
+        }
+    }
+
 }
@@ -0,0 +1,69 @@
+package com.task.pipeline.processor;
+
+import com.task.pipeline.processor.collection.AbstractLimitedSelectionBuffer;
+import com.task.pipeline.processor.collection.GroupingLimitedSelectionBuffer;
+import com.task.pipeline.processor.collection.LimitedSelectionBuffer;
+import lombok.NonNull;
+
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * This implementation has O(N + M*logM*log(N/M)) expected time complexity and O(M) space complexity, where
+ * - N is total input size
+ * - M is total output limit
+ * <p>
+ * It is intended for output limits high enough to make tree-based sets inefficient.
+ *
+ * @param <T>  type of entities to process
+ * @param <ID> type of entities groups identifier
+ */
+public class LargeLimitOptimizedProcessor<T, ID> extends AbstractGroupingLimitingSortingProcessor<T, ID> {
+
+    public LargeLimitOptimizedProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                        @NonNull Comparator<? super T> comparator,
+                                        int groupLimit, int totalLimit) {
+        this(idMapper, comparator, Function.identity(), groupLimit, totalLimit);
+    }
+
+    public LargeLimitOptimizedProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                        @NonNull Comparator<? super T> comparator,
+                                        @NonNull Function<? super T, ? extends T> materializer,
+                                        int groupLimit, int totalLimit) {
+        this(idMapper, comparator, materializer, null, groupLimit, totalLimit);
+    }
+
+    public LargeLimitOptimizedProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                        @NonNull Comparator<? super T> comparator,
+                                        @NonNull Function<? super T, ? extends T> materializer,
+                                        SharedCutoff<T> sharedCutoff,
+                                        int groupLimit, int totalLimit) {
+        super(idMapper, comparator, materializer, sharedCutoff, groupLimit, totalLimit);
+    }
+
+    @Override
+    protected Stream<? extends T> groupLimitSort(Stream<? extends T> entities) {
+        return entities.parallel().collect(Collector.of(
+                () -> new GroupingLimitedSelectionBuffer<T, ID>(getIdMapper(), getComparator(), getMaterializer(),
+                        getGroupLimit(), getTotalLimit()),
+                this::addToBuffer, GroupingLimitedSelectionBuffer::merge, GroupingLimitedSelectionBuffer::stream,
+                Collector.Characteristics.UNORDERED));
+    }
+
+    @Override
+    protected Stream<? extends T> limitSort(Stream<? extends T> entities) {
+        return entities.parallel().collect(Collector.of(
+                () -> new LimitedSelectionBuffer<T>(getComparator(), getMaterializer(), getTotalLimit()),
+                this::addToBuffer, LimitedSelectionBuffer::merge, LimitedSelectionBuffer::stream,
+                Collector.Characteristics.UNORDERED));
+    }
+
+    private void addToBuffer(AbstractLimitedSelectionBuffer<T, ?> buffer, T entity) {
+        if (buffer.add(entity)) {
+            publishCutoff(buffer.getThreshold());
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.task.pipeline.processor;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The least of entities published by a processor, which no greater entity can get into its output after.
+ * It lets readers of the input skip entities which are known to be rejected.
+ *
+ * @param <T> type of entities
+ */
+@RequiredArgsConstructor
+public class SharedCutoff<T> {
+
+    @NonNull
+    private final Comparator<? super T> comparator;
+
+    private final AtomicReference<T> cutoff = new AtomicReference<>();
+
+    /**
+     * @return the current cutoff, or null if there is none yet
+     */
+    public T get() {
+        return cutoff.get();
+    }
+
+    public void offer(@NonNull T candidate) {
+        T current = cutoff.get();
+        while ((current == null || comparator.compare(candidate, current) < 0)
+                && !cutoff.compareAndSet(current, candidate)) {
+            current = cutoff.get();
+        }
+    }
+}
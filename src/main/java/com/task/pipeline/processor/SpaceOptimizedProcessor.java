@@ -1,6 +1,8 @@
 package com.task.pipeline.processor;
 
 import com.task.pipeline.processor.collection.GroupingLimitedSortedSet;
+import com.task.pipeline.processor.collection.SortedRunsAccumulator;
+import com.task.pipeline.processor.collection.SortedRunsMerger;
 import lombok.NonNull;
 
 import java.util.Comparator;
@@ -22,14 +24,32 @@ public class SpaceOptimizedProcessor<T, ID> extends AbstractGroupingLimitingSort
     public SpaceOptimizedProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
                                    @NonNull Comparator<? super T> comparator,
                                    int groupLimit, int totalLimit) {
-        super(idMapper, comparator, groupLimit, totalLimit);
+        this(idMapper, comparator, Function.identity(), groupLimit, totalLimit);
+    }
+
+    public SpaceOptimizedProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                   @NonNull Comparator<? super T> comparator,
+                                   @NonNull Function<? super T, ? extends T> materializer,
+                                   int groupLimit, int totalLimit) {
+        this(idMapper, comparator, materializer, null, groupLimit, totalLimit);
+    }
+
+    public SpaceOptimizedProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                   @NonNull Comparator<? super T> comparator,
+                                   @NonNull Function<? super T, ? extends T> materializer,
+                                   SharedCutoff<T> sharedCutoff,
+                                   int groupLimit, int totalLimit) {
+        super(idMapper, comparator, materializer, sharedCutoff, groupLimit, totalLimit);
     }
 
     @Override
     protected Stream<? extends T> groupLimitSort(Stream<? extends T> entities) {
+        SortedRunsMerger<T, ID> merger = new SortedRunsMerger<>(getIdMapper(), getComparator(),
+                getGroupLimit(), getTotalLimit());
         return entities.parallel().collect(Collector.of(
-                () -> new GroupingLimitedSortedSet<T, ID>(getIdMapper(), getComparator(), getGroupLimit(), getTotalLimit()),
-                GroupingLimitedSortedSet::add, GroupingLimitedSortedSet::merge, GroupingLimitedSortedSet::stream,
+                () -> new SortedRunsAccumulator<T>(new GroupingLimitedSortedSet<T, ID>(getIdMapper(), getComparator(),
+                        getMaterializer(), getGroupLimit(), getTotalLimit()), merger),
+                this::accumulate, SortedRunsAccumulator::combine, SortedRunsAccumulator::stream,
                 Collector.Characteristics.UNORDERED));
     }
 
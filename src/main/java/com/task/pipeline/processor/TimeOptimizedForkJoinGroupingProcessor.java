@@ -1,6 +1,7 @@
 package com.task.pipeline.processor;
 
 import com.task.pipeline.processor.collection.LimitedSortedSet;
+import com.task.pipeline.processor.collection.SortedRunsMerger;
 import lombok.NonNull;
 
 import java.util.Comparator;
@@ -10,10 +11,11 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * This implementation has O(N*(C1*logK + C2*logM)) time complexity and O(N) space complexity, where
+ * This implementation has O(N*C1*logK + G + M*C2*logG) time complexity and O(N) space complexity, where
  * - N is total input size
  * - M is total output limit
  * - K is output group size limit
+ * - G is number of groups
  *
  * @param <T>  type of entities to process
  * @param <ID> type of entities groups identifier
@@ -23,19 +25,33 @@ public class TimeOptimizedForkJoinGroupingProcessor<T, ID> extends AbstractGroup
     public TimeOptimizedForkJoinGroupingProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
                                                   @NonNull Comparator<? super T> comparator,
                                                   int groupLimit, int totalLimit) {
-        super(idMapper, comparator, groupLimit, totalLimit);
+        this(idMapper, comparator, Function.identity(), groupLimit, totalLimit);
+    }
+
+    public TimeOptimizedForkJoinGroupingProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                                  @NonNull Comparator<? super T> comparator,
+                                                  @NonNull Function<? super T, ? extends T> materializer,
+                                                  int groupLimit, int totalLimit) {
+        this(idMapper, comparator, materializer, null, groupLimit, totalLimit);
+    }
+
+    public TimeOptimizedForkJoinGroupingProcessor(@NonNull Function<? super T, ? extends ID> idMapper,
+                                                  @NonNull Comparator<? super T> comparator,
+                                                  @NonNull Function<? super T, ? extends T> materializer,
+                                                  SharedCutoff<T> sharedCutoff,
+                                                  int groupLimit, int totalLimit) {
+        super(idMapper, comparator, materializer, sharedCutoff, groupLimit, totalLimit);
     }
 
     @Override
     protected Stream<? extends T> groupLimitSort(Stream<? extends T> entities) {
-        return limitSort(entities.parallel().collect(
+        return new SortedRunsMerger<T, ID>(getComparator(), getTotalLimit()).merge(entities.parallel().collect(
                 Collectors.groupingBy(getIdMapper(), Collector.of(
-                        () -> new LimitedSortedSet<T>(getComparator(), getGroupLimit()),
-                        LimitedSortedSet::add, LimitedSortedSet::merge, LimitedSortedSet::stream,
+                        () -> new LimitedSortedSet<T>(getComparator(), getMaterializer(), getGroupLimit()),
+                        LimitedSortedSet::add, LimitedSortedSet::merge,
                         Collector.Characteristics.UNORDERED)))
-                .values()
-                .stream()
-                .flatMap(Function.identity()));
+                .values())
+                .stream();
     }
 
 }
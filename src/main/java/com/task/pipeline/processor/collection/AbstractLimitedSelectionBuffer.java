@@ -0,0 +1,192 @@
+package com.task.pipeline.processor.collection;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Unordered accumulation buffer which keeps no more than limit smallest distinct items.
+ * Items are appended to an array until it holds twice the limit, then the buffer is pruned by quickselect
+ * and the limit-th item becomes a threshold below which new items must fall to be accepted.
+ * Survivors are sorted only when pruning and when the result is requested.
+ * Items are passed through the materializer only when they are accepted.
+ *
+ * @param <T>    type of items
+ * @param <SELF> type of implementation
+ */
+public abstract class AbstractLimitedSelectionBuffer<T, SELF extends AbstractLimitedSelectionBuffer<T, SELF>> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Comparator<? super T> comparator;
+    private final Function<? super T, ? extends T> materializer;
+    private final int limit;
+    private final int capacity;
+
+    private Object[] buffer;
+    private int size;
+    private T threshold;
+
+    public AbstractLimitedSelectionBuffer(@NonNull Comparator<? super T> comparator,
+                                          @NonNull Function<? super T, ? extends T> materializer,
+                                          int limit) {
+        this.comparator = comparator;
+        this.materializer = materializer;
+        this.limit = limit;
+        this.capacity = limit > Integer.MAX_VALUE / 2 - 8 ? Integer.MAX_VALUE - 8 : Math.max(limit * 2, 1);
+        this.buffer = new Object[Math.min(INITIAL_CAPACITY, capacity)];
+    }
+
+    public boolean add(T item) {
+        if (isCandidateForAdding(item)) {
+            doAdd(materializer.apply(item));
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isCandidateForAdding(T item) {
+        return threshold == null || comparator.compare(item, threshold) < 0;
+    }
+
+    private void doAdd(T item) {
+        if (size == buffer.length) {
+            if (size < capacity) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) size * 2, capacity));
+            } else {
+                prune(false);
+            }
+        }
+        buffer[size++] = item;
+    }
+
+    @SuppressWarnings("unchecked")
+    public SELF merge(SELF other) {
+        AbstractLimitedSelectionBuffer<T, SELF> target = this;
+        AbstractLimitedSelectionBuffer<T, SELF> source = other;
+        if (source.size > target.size) {
+            target = other;
+            source = this;
+        }
+        for (int i = 0; i < source.size; i++) {
+            T item = (T) source.buffer[i];
+            if (target.isCandidateForAdding(item)) {
+                target.doAdd(item);
+            }
+        }
+        return (SELF) target;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Stream<T> stream() {
+        prune(true);
+        return Arrays.stream(buffer, 0, size).map(item -> (T) item);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public T getThreshold() {
+        return threshold;
+    }
+
+    protected void startPruning() {
+    }
+
+    protected boolean isAdmissible(T item) {
+        return true;
+    }
+
+    /**
+     * Leaves no more than limit smallest distinct admissible items sorted at the beginning of the buffer.
+     * Quickselect narrows candidates to as many as still needed, they are sorted and filtered,
+     * and the round repeats over the remaining items if filtering dropped some of them.
+     */
+    @SuppressWarnings("unchecked")
+    private void prune(boolean last) {
+        startPruning();
+        int initialSize = size;
+        int kept = 0;
+        while (kept < limit && size > kept) {
+            int needed = limit - kept;
+            int end = size - kept > needed ? kept + needed : size;
+            if (end < size) {
+                select(kept, size - 1, end - 1);
+            }
+            if (last) {
+                Arrays.parallelSort((T[]) buffer, kept, end, comparator);
+            } else {
+                Arrays.sort((T[]) buffer, kept, end, comparator);
+            }
+            int write = kept;
+            for (int i = kept; i < end; i++) {
+                T item = (T) buffer[i];
+                if ((write == 0 || comparator.compare(item, (T) buffer[write - 1]) != 0) && isAdmissible(item)) {
+                    buffer[write++] = item;
+                }
+            }
+            System.arraycopy(buffer, end, buffer, write, size - end);
+            size = write + size - end;
+            kept = write;
+        }
+        Arrays.fill(buffer, kept, initialSize, null);
+        size = kept;
+        threshold = size == limit ? (T) buffer[size - 1] : null;
+    }
+
+    /**
+     * Rearranges items between left and right inclusive so that the k-th one is in its sorted position,
+     * none of preceding items are greater and none of following ones are smaller.
+     * Falls back to sorting if partitioning keeps being unbalanced.
+     */
+    @SuppressWarnings("unchecked")
+    private void select(int left, int right, int k) {
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(right - left + 1));
+        while (right > left) {
+            if (depthLimit-- == 0) {
+                Arrays.sort((T[]) buffer, left, right + 1, comparator);
+                return;
+            }
+            T pivot = medianOfThree((T) buffer[left], (T) buffer[left + (right - left) / 2], (T) buffer[right]);
+            // three-way partitioning: [left, lt) < pivot, [lt, gt] == pivot, (gt, right] > pivot
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                int cmp = comparator.compare((T) buffer[i], pivot);
+                if (cmp < 0) {
+                    swap(lt++, i++);
+                } else if (cmp > 0) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                right = lt - 1;
+            } else if (k > gt) {
+                left = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private T medianOfThree(T a, T b, T c) {
+        if (comparator.compare(a, b) < 0) {
+            return comparator.compare(b, c) < 0 ? b : comparator.compare(a, c) < 0 ? c : a;
+        }
+        return comparator.compare(a, c) < 0 ? a : comparator.compare(b, c) < 0 ? c : b;
+    }
+
+    private void swap(int i, int j) {
+        Object tmp = buffer[i];
+        buffer[i] = buffer[j];
+        buffer[j] = tmp;
+    }
+
+}
@@ -3,15 +3,28 @@ package com.task.pipeline.processor.collection;
 import lombok.NonNull;
 
 import java.util.*;
+import java.util.function.Function;
 
+/**
+ * Sorted set keeping no more than limit smallest items.
+ * Items are passed through the materializer only when they are actually added,
+ * so that rejected items may be reusable views which are never retained.
+ *
+ * @param <T>    type of items
+ * @param <SELF> type of implementation
+ */
 public abstract class AbstractLimitedSortedSet<T, SELF extends AbstractLimitedSortedSet<T, SELF>> extends TreeSet<T> {
 
     private final Comparator<? super T> comparator;
+    private final Function<? super T, ? extends T> materializer;
     private final int limit;
 
-    public AbstractLimitedSortedSet(@NonNull Comparator<? super T> comparator, int limit) {
+    public AbstractLimitedSortedSet(@NonNull Comparator<? super T> comparator,
+                                    @NonNull Function<? super T, ? extends T> materializer,
+                                    int limit) {
         super(comparator);
         this.comparator = comparator;
+        this.materializer = materializer;
         this.limit = limit;
     }
 
@@ -29,7 +42,7 @@ public abstract class AbstractLimitedSortedSet<T, SELF extends AbstractLimitedSo
     @Override
     public boolean add(T item) {
         if (isCandidateForAdding(item)) {
-            return doAdd(item);
+            return doAdd(materializer.apply(item));
         }
         return false;
     }
@@ -40,6 +53,10 @@ public abstract class AbstractLimitedSortedSet<T, SELF extends AbstractLimitedSo
         return super.add(item);
     }
 
+    public boolean isFull() {
+        return size() >= limit;
+    }
+
     protected boolean isLimitExceeded() {
         return size() > limit;
     }
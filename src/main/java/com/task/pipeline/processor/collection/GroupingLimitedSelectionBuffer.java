@@ -0,0 +1,44 @@
+package com.task.pipeline.processor.collection;
+
+import lombok.NonNull;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public class GroupingLimitedSelectionBuffer<T, ID>
+        extends AbstractLimitedSelectionBuffer<T, GroupingLimitedSelectionBuffer<T, ID>> {
+
+    private final Function<? super T, ? extends ID> idMapper;
+    private final int groupLimit;
+
+    private final Map<ID, Integer> groupSizes = new HashMap<>();
+
+    public GroupingLimitedSelectionBuffer(@NonNull Function<? super T, ? extends ID> idMapper,
+                                          @NonNull Comparator<? super T> comparator,
+                                          int groupLimit, int totalLimit) {
+        this(idMapper, comparator, Function.identity(), groupLimit, totalLimit);
+    }
+
+    public GroupingLimitedSelectionBuffer(@NonNull Function<? super T, ? extends ID> idMapper,
+                                          @NonNull Comparator<? super T> comparator,
+                                          @NonNull Function<? super T, ? extends T> materializer,
+                                          int groupLimit, int totalLimit) {
+        super(comparator, materializer, totalLimit);
+        this.idMapper = idMapper;
+        this.groupLimit = groupLimit;
+    }
+
+    @Override
+    protected void startPruning() {
+        groupSizes.clear();
+    }
+
+    @Override
+    protected boolean isAdmissible(T item) {
+        int groupSize = groupSizes.merge(idMapper.apply(item), 1, Integer::sum);
+        return groupSize <= groupLimit;
+    }
+
+}
@@ -18,7 +18,14 @@ public class GroupingLimitedSortedSet<T, ID> extends AbstractLimitedSortedSet<T,
     public GroupingLimitedSortedSet(@NonNull Function<? super T, ? extends ID> idMapper,
                                     @NonNull Comparator<? super T> comparator,
                                     int groupLimit, int totalLimit) {
-        super(comparator, totalLimit);
+        this(idMapper, comparator, Function.identity(), groupLimit, totalLimit);
+    }
+
+    public GroupingLimitedSortedSet(@NonNull Function<? super T, ? extends ID> idMapper,
+                                    @NonNull Comparator<? super T> comparator,
+                                    @NonNull Function<? super T, ? extends T> materializer,
+                                    int groupLimit, int totalLimit) {
+        super(comparator, materializer, totalLimit);
         this.idMapper = idMapper;
         this.groupLimit = groupLimit;
     }
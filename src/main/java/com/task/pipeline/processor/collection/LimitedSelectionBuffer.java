@@ -0,0 +1,19 @@
+package com.task.pipeline.processor.collection;
+
+import lombok.NonNull;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+public class LimitedSelectionBuffer<T> extends AbstractLimitedSelectionBuffer<T, LimitedSelectionBuffer<T>> {
+
+    public LimitedSelectionBuffer(@NonNull Comparator<? super T> comparator, int limit) {
+        this(comparator, Function.identity(), limit);
+    }
+
+    public LimitedSelectionBuffer(@NonNull Comparator<? super T> comparator,
+                                  @NonNull Function<? super T, ? extends T> materializer,
+                                  int limit) {
+        super(comparator, materializer, limit);
+    }
+}
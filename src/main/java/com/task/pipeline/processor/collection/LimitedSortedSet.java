@@ -3,11 +3,18 @@ package com.task.pipeline.processor.collection;
 import lombok.NonNull;
 
 import java.util.Comparator;
+import java.util.function.Function;
 
 public class LimitedSortedSet<T> extends AbstractLimitedSortedSet<T, LimitedSortedSet<T>> {
 
     public LimitedSortedSet(@NonNull Comparator<? super T> comparator, int limit) {
-        super(comparator, limit);
+        this(comparator, Function.identity(), limit);
+    }
+
+    public LimitedSortedSet(@NonNull Comparator<? super T> comparator,
+                            @NonNull Function<? super T, ? extends T> materializer,
+                            int limit) {
+        super(comparator, materializer, limit);
     }
 
     @Override
@@ -0,0 +1,56 @@
+package com.task.pipeline.processor.collection;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Container for parallel collecting, which accumulates items into a limited sorted set and combines with other
+ * containers by keeping their sets as sorted runs. The runs are merged at once when too many of them pile up
+ * and when the result is requested, instead of re-inserting items of one set into another.
+ *
+ * @param <T> type of items
+ */
+public class SortedRunsAccumulator<T> {
+
+    private static final int MAX_RUNS = 64;
+
+    private final AbstractLimitedSortedSet<T, ?> set;
+    private final SortedRunsMerger<T, ?> merger;
+
+    private List<Collection<? extends T>> runs = new ArrayList<>();
+
+    public SortedRunsAccumulator(@NonNull AbstractLimitedSortedSet<T, ?> set, @NonNull SortedRunsMerger<T, ?> merger) {
+        this.set = set;
+        this.merger = merger;
+        this.runs.add(set);
+    }
+
+    public boolean add(T item) {
+        return set.add(item);
+    }
+
+    /**
+     * @return the last item of the accumulating set if it is full, or null otherwise
+     */
+    public T getCutoff() {
+        return set.isFull() ? set.last() : null;
+    }
+
+    public SortedRunsAccumulator<T> combine(SortedRunsAccumulator<T> other) {
+        runs.addAll(other.runs);
+        if (runs.size() >= MAX_RUNS) {
+            runs = new ArrayList<>(Collections.singletonList(merger.merge(runs)));
+        }
+        return this;
+    }
+
+    public Stream<T> stream() {
+        return runs.size() == 1 && runs.get(0) == set ? set.stream() : merger.merge(runs).stream();
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.task.pipeline.processor.collection;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Merges runs of items, each sorted according to the comparator, with a loser tree of the runs heads.
+ * Group and total limits are applied in the same single pass, which stops as soon as the total limit is reached,
+ * and items equal to a preceding one are skipped as in sorted sets.
+ * Merging runs, each limited with the same limits from a part of input, gives the result limited from the whole input.
+ *
+ * @param <T>  type of items
+ * @param <ID> type of items groups identifier
+ */
+public class SortedRunsMerger<T, ID> {
+
+    private final Comparator<? super T> comparator;
+    private final Function<? super T, ? extends ID> idMapper;
+    private final int groupLimit;
+    private final int totalLimit;
+
+    public SortedRunsMerger(@NonNull Comparator<? super T> comparator, int totalLimit) {
+        this.comparator = comparator;
+        this.idMapper = null;
+        this.groupLimit = Integer.MAX_VALUE;
+        this.totalLimit = totalLimit;
+    }
+
+    public SortedRunsMerger(@NonNull Function<? super T, ? extends ID> idMapper,
+                            @NonNull Comparator<? super T> comparator,
+                            int groupLimit, int totalLimit) {
+        this.comparator = comparator;
+        this.idMapper = idMapper;
+        this.groupLimit = groupLimit;
+        this.totalLimit = totalLimit;
+    }
+
+    public List<T> merge(@NonNull Collection<? extends Iterable<? extends T>> runs) {
+        List<T> merged = new ArrayList<>();
+        if (totalLimit <= 0 || groupLimit <= 0) {
+            return merged;
+        }
+        Map<ID, Integer> groupSizes = idMapper == null ? null : new HashMap<>();
+        LoserTree tree = new LoserTree(runs);
+        T previous = null;
+        while (merged.size() < totalLimit && tree.hasNext()) {
+            T item = tree.next();
+            if (previous != null && comparator.compare(item, previous) == 0) {
+                continue;
+            }
+            previous = item;
+            if (groupSizes == null || groupSizes.merge(idMapper.apply(item), 1, Integer::sum) <= groupLimit) {
+                merged.add(item);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Tournament tree which internal nodes keep losers of matches between their subtrees,
+     * so that replacing the winner with the next item of its run takes a single path of matches to the root.
+     */
+    private class LoserTree {
+
+        private final List<Iterator<? extends T>> runs = new ArrayList<>();
+        private final Object[] heads;
+        private final boolean[] exhausted;
+        // losers[0] is the overall winner, run i is a leaf at virtual node runs.size() + i
+        private final int[] losers;
+
+        private LoserTree(Collection<? extends Iterable<? extends T>> runs) {
+            for (Iterable<? extends T> run : runs) {
+                this.runs.add(run.iterator());
+            }
+            int size = this.runs.size();
+            this.heads = new Object[size];
+            this.exhausted = new boolean[size];
+            this.losers = new int[Math.max(size, 1)];
+            for (int i = 0; i < size; i++) {
+                advance(i);
+            }
+            int[] winners = new int[size * 2];
+            for (int i = 0; i < size; i++) {
+                winners[size + i] = i;
+            }
+            for (int node = size - 1; node >= 1; node--) {
+                int left = winners[node * 2];
+                int right = winners[node * 2 + 1];
+                boolean leftWins = beats(left, right);
+                winners[node] = leftWins ? left : right;
+                losers[node] = leftWins ? right : left;
+            }
+            losers[0] = size > 1 ? winners[1] : 0;
+        }
+
+        private boolean hasNext() {
+            return heads.length > 0 && !exhausted[losers[0]];
+        }
+
+        @SuppressWarnings("unchecked")
+        private T next() {
+            int winner = losers[0];
+            T item = (T) heads[winner];
+            advance(winner);
+            for (int node = (winner + heads.length) / 2; node >= 1; node /= 2) {
+                if (beats(losers[node], winner)) {
+                    int loser = winner;
+                    winner = losers[node];
+                    losers[node] = loser;
+                }
+            }
+            losers[0] = winner;
+            return item;
+        }
+
+        private void advance(int run) {
+            Iterator<? extends T> iterator = runs.get(run);
+            if (iterator.hasNext()) {
+                heads[run] = iterator.next();
+            } else {
+                heads[run] = null;
+                exhausted[run] = true;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean beats(int run, int other) {
+            if (exhausted[run] || exhausted[other]) {
+                return !exhausted[run];
+            }
+            int cmp = comparator.compare((T) heads[run], (T) heads[other]);
+            return cmp < 0 || cmp == 0 && run < other;
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.task.pipeline.producer;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads records through a single {@link CsvRecordCursor} and emits the same flyweight for each valid record
+ * accepted by the filter, which is checked inside the reader so that rejected records never enter the stream.
+ * Consumers must copy whatever they need to retain before requesting the next record.
+ */
+@RequiredArgsConstructor
+public class CsvCursorRecordsReader<T extends CsvRecordFlyweight> implements RecordsReader<T> {
+
+    @NonNull
+    private final Function<CsvRecordCursor, ? extends T> flyweightFactory;
+    @NonNull
+    private final Predicate<? super T> filter;
+
+    public CsvCursorRecordsReader(Function<CsvRecordCursor, ? extends T> flyweightFactory) {
+        this(flyweightFactory, flyweight -> true);
+    }
+
+    @Override
+    public Stream<T> read(Reader reader) {
+        CsvRecordCursor cursor = new CsvRecordCursor(reader);
+        return StreamSupport
+                .stream(new FlyweightSpliterator(cursor, flyweightFactory.apply(cursor)), false)
+                .onClose(() -> FromDirCsvFilesProducer.silentClose(cursor));
+    }
+
+    /**
+     * Non-splittable spliterator, since all of its elements are the same object
+     */
+    @RequiredArgsConstructor
+    private class FlyweightSpliterator implements Spliterator<T> {
+
+        private final CsvRecordCursor cursor;
+        private final T flyweight;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                while (cursor.next()) {
+                    if (flyweight.load() && filter.test(flyweight)) {
+                        action.accept(flyweight);
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL;
+        }
+    }
+}
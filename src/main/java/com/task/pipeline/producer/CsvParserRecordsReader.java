@@ -0,0 +1,37 @@
+package com.task.pipeline.producer;
+
+import com.task.pipeline.util.MappingResult;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads entities mapped from records of a {@link CSVParser}, skipping records which fail to be mapped.
+ */
+@RequiredArgsConstructor
+public class CsvParserRecordsReader<T> implements RecordsReader<T> {
+
+    @NonNull
+    private final Function<CSVRecord, ? extends T> toEntityMapper;
+    @NonNull
+    private final CSVFormat format;
+
+    @Override
+    public Stream<T> read(Reader reader) throws IOException {
+        CSVParser parser = CSVParser.parse(reader, format);
+        return StreamSupport
+                .stream(parser.spliterator(), false)
+                .onClose(() -> FromDirCsvFilesProducer.silentClose(parser))
+                .map(MappingResult.wrap(toEntityMapper::apply))
+                .filter(MappingResult::isSuccessful) // TODO: process entity mapping failures?
+                .map(MappingResult::getMappedValue);
+    }
+}
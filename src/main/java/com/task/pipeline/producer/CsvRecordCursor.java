@@ -0,0 +1,289 @@
+package com.task.pipeline.producer;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Mutable cursor over CSV records in the default format (RFC 4180, empty lines ignored).
+ * Fields of the current record are kept in a reusable character buffer and can be read in place,
+ * so that advancing through records does not allocate memory. Field values are only valid until the next advance.
+ * Records with characters between a closing quote and a delimiter, or with a quoted field not closed
+ * before the end of input, are skipped.
+ */
+public class CsvRecordCursor implements Closeable {
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_FIELDS_COUNT = 16;
+    private static final int MAX_FAST_PARSED_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final char CR = '\r';
+    private static final char LF = '\n';
+    private static final int END = -1;
+
+    private final Reader reader;
+
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+    private int limit;
+    private boolean endReached;
+
+    private int recordStart;
+    private int recordEnd;
+    // field bounds are relative to the record start to stay valid when the buffer is compacted
+    private int[] fieldStarts = new int[INITIAL_FIELDS_COUNT];
+    private int[] fieldEnds = new int[INITIAL_FIELDS_COUNT];
+    private int fieldsCount;
+
+    public CsvRecordCursor(@NonNull Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return true if the cursor moved to the next record, false if there are no more records
+     */
+    public boolean next() throws IOException {
+        recordStart = recordEnd;
+        while (true) {
+            int status = readRecord();
+            if (status == END) {
+                return false;
+            }
+            if (status > 0) {
+                return true;
+            }
+            recordStart = recordEnd;
+        }
+    }
+
+    public int getFieldsCount() {
+        return fieldsCount;
+    }
+
+    public int getFieldLength(int field) {
+        checkField(field);
+        return fieldEnds[field] - fieldStarts[field];
+    }
+
+    public char charAt(int field, int index) {
+        checkField(field);
+        if (index < 0 || index >= fieldEnds[field] - fieldStarts[field]) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return buffer[recordStart + fieldStarts[field] + index];
+    }
+
+    /**
+     * @return new string with the value of the field
+     */
+    public String getString(int field) {
+        checkField(field);
+        return new String(buffer, recordStart + fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    public boolean fieldEquals(int field, @NonNull CharSequence value) {
+        checkField(field);
+        int start = recordStart + fieldStarts[field];
+        int length = fieldEnds[field] - fieldStarts[field];
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the field as {@link Integer#parseInt(String)} does, without allocating memory unless it fails.
+     */
+    public int getInt(int field) {
+        checkField(field);
+        int start = recordStart + fieldStarts[field];
+        int end = recordStart + fieldEnds[field];
+        boolean negative = start < end && buffer[start] == '-';
+        int i = start < end && (negative || buffer[start] == '+') ? start + 1 : start;
+        if (i == end || end - i > 10) {
+            return Integer.parseInt(getString(field));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as {@link Double#parseDouble(String)} does.
+     * Plain decimals with up to 15 significant digits are parsed in place, which is exact in that case,
+     * other values are delegated to {@link Double#parseDouble(String)}.
+     */
+    public double getDouble(int field) {
+        checkField(field);
+        int start = recordStart + fieldStarts[field];
+        int end = recordStart + fieldEnds[field];
+        boolean negative = start < end && buffer[start] == '-';
+        int i = start < end && (negative || buffer[start] == '+') ? start + 1 : start;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_FAST_PARSED_DIGITS) {
+                    return Double.parseDouble(getString(field));
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.parseDouble(getString(field));
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(getString(field));
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldsCount) {
+            throw new IndexOutOfBoundsException("Field: " + field + ", fields count: " + fieldsCount);
+        }
+    }
+
+    /**
+     * Reads the record starting at the record start, characters of quoted fields are unescaped in place.
+     *
+     * @return {@link #END} if there are no more records, 0 if the record is empty or malformed, 1 otherwise
+     */
+    private int readRecord() throws IOException {
+        int read = 0;
+        int written = 0;
+        boolean malformed = false;
+        fieldsCount = 0;
+        int c = charAt(read);
+        if (c == END) {
+            return END;
+        }
+        if (c == LF || c == CR) {
+            int end = skipLineBreak(read); // may move the record start by filling the buffer
+            recordEnd = recordStart + end;
+            return 0;
+        }
+        int fieldStart = 0;
+        boolean quoted = false;
+        while (true) {
+            c = charAt(read++);
+            if (c == QUOTE && written == fieldStart && !quoted) {
+                quoted = true;
+                while ((c = charAt(read++)) != END) {
+                    if (c == QUOTE) {
+                        if (charAt(read) != QUOTE) {
+                            break;
+                        }
+                        read++;
+                    }
+                    buffer[recordStart + written++] = (char) c;
+                }
+                if (c == END) {
+                    malformed = true;
+                    read--;
+                }
+            } else if (c == DELIMITER) {
+                addField(fieldStart, written);
+                fieldStart = written;
+                quoted = false;
+            } else if (c == LF || c == CR || c == END) {
+                addField(fieldStart, written);
+                int end = c == END ? read - 1 : skipLineBreak(read - 1);
+                recordEnd = recordStart + end;
+                return malformed ? 0 : 1;
+            } else {
+                malformed |= quoted;
+                buffer[recordStart + written++] = (char) c;
+            }
+        }
+    }
+
+    /**
+     * @return offset following the line break at the given offset
+     */
+    private int skipLineBreak(int offset) throws IOException {
+        return charAt(offset) == CR && charAt(offset + 1) == LF ? offset + 2 : offset + 1;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldsCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldsCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldsCount * 2);
+        }
+        fieldStarts[fieldsCount] = start;
+        fieldEnds[fieldsCount] = end;
+        fieldsCount++;
+    }
+
+    /**
+     * @return character at the offset from the record start, or {@link #END} if input ends before it
+     */
+    private int charAt(int offset) throws IOException {
+        while (recordStart + offset >= limit) {
+            if (!fill()) {
+                return END;
+            }
+        }
+        return buffer[recordStart + offset];
+    }
+
+    /**
+     * Moves the current record to the beginning of the buffer, growing it if needed, and reads more input.
+     */
+    private boolean fill() throws IOException {
+        if (endReached) {
+            return false;
+        }
+        if (recordStart > 0) {
+            System.arraycopy(buffer, recordStart, buffer, 0, limit - recordStart);
+            limit -= recordStart;
+            recordEnd -= recordStart;
+            recordStart = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int count = reader.read(buffer, limit, buffer.length - limit);
+        if (count < 0) {
+            endReached = true;
+            return false;
+        }
+        limit += count;
+        return true;
+    }
+
+}
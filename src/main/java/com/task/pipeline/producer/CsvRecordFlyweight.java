@@ -0,0 +1,14 @@
+package com.task.pipeline.producer;
+
+/**
+ * Reusable entity view over the current record of a {@link CsvRecordCursor}.
+ */
+public interface CsvRecordFlyweight {
+
+    /**
+     * Reads the fields of the current record needed to view it as an entity.
+     *
+     * @return false if the record is not a valid entity and must be skipped
+     */
+    boolean load();
+}
@@ -1,83 +1,177 @@
 package com.task.pipeline.producer;
 
-import com.task.pipeline.EntitiesProducer;
+import com.task.pipeline.DeadlineBoundedProducer;
+import com.task.pipeline.PartitionedProducer;
+import com.task.pipeline.util.DeadlineBoundedSpliterator;
 import com.task.pipeline.util.MappingResult;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
-import java.util.Collection;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 @RequiredArgsConstructor
-public class FromDirCsvFilesProducer<T> implements EntitiesProducer<T> {
+public class FromDirCsvFilesProducer<T> implements DeadlineBoundedProducer<T>, PartitionedProducer<T> {
 
     private static final CSVFormat DEFAULT_CSV_FORMAT = CSVFormat.DEFAULT;
+    private static final int DEFAULT_READ_BUFFER_SIZE = 1 << 20;
+    private static final int DEFAULT_READ_AHEAD_DEPTH = 2;
 
     @NonNull
-    private final Function<CSVRecord, ? extends T> toEntityMapper;
+    private final RecordsReader<? extends T> recordsReader;
     @NonNull
-    private final Path dir;
-    @NonNull
-    private final CSVFormat format;
+    private final ParallelFileFinder fileFinder;
+    private final int readBufferSize;
+    private final int readAheadDepth;
+    private final SortedInputCutoff<T> sortedInputCutoff;
+
+    private final LongAdder ioWaitNanos = new LongAdder();
+    private final InputCoverage coverage = new InputCoverage();
 
     public static <T> FromDirCsvFilesProducer<T> withDefaultFormat(Function<CSVRecord, ? extends T> toEntityMapper,
                                                                    Path dir) {
-        return new FromDirCsvFilesProducer<>(toEntityMapper, dir, DEFAULT_CSV_FORMAT);
+        return withDefaultFormat(toEntityMapper, ParallelFileFinder.withDefaultPatterns(dir),
+                DEFAULT_READ_BUFFER_SIZE, DEFAULT_READ_AHEAD_DEPTH);
+    }
+
+    public static <T> FromDirCsvFilesProducer<T> withDefaultFormat(Function<CSVRecord, ? extends T> toEntityMapper,
+                                                                   ParallelFileFinder fileFinder,
+                                                                   int readBufferSize, int readAheadDepth) {
+        return new FromDirCsvFilesProducer<>(new CsvParserRecordsReader<>(toEntityMapper, DEFAULT_CSV_FORMAT),
+                fileFinder, readBufferSize, readAheadDepth, null);
+    }
+
+    public Duration getIoWaitTime() {
+        return Duration.ofNanos(ioWaitNanos.sum());
+    }
+
+    public InputCoverage getCoverage() {
+        return coverage;
     }
 
     @Override
     public Stream<? extends T> produce() throws IOException {
-        if (!Files.isDirectory(dir)) {
-            throw new NotDirectoryException(dir.toString());
+        coverage.reset();
+        // files are streamed as found to let processing start before the search ends
+        return records(fileFinder.find(), null);
+    }
+
+    /**
+     * Files are processed in the order of their paths, those not found or not started before the deadline
+     * are skipped, and those in progress are closed without reading to the end.
+     */
+    @Override
+    public Stream<? extends T> produce(@NonNull Instant deadline) throws IOException {
+        coverage.reset();
+        return records(
+                DeadlineBoundedSpliterator.bound(fileFinder.findInOrder(deadline, coverage::inputCutShort),
+                        deadline, coverage::inputCutShort),
+                deadline);
+    }
+
+    @Override
+    public List<String> partitions() throws IOException {
+        try (Stream<Path> files = fileFinder.find()) {
+            return files.map(file -> file.toAbsolutePath().normalize().toString())
+                    .sorted()
+                    .collect(Collectors.toList());
         }
-        try (Stream<Path> files = Files.list(dir)) {
-            return records(files.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".csv"))
-                    .collect(Collectors.toList())) // eagerly reading list of files to make pipeline effectively parallelizable
-                    .map(MappingResult.wrap(toEntityMapper::apply))
-                    .filter(MappingResult::isSuccessful) // TODO: process entity mapping failures?
-                    .map(MappingResult::getMappedValue);
+    }
+
+    @Override
+    public long partitionSize(@NonNull String partition) throws IOException {
+        return Files.size(Paths.get(partition));
+    }
+
+    @Override
+    public Stream<? extends T> produce(@NonNull List<String> partitions) {
+        return records(partitions.parallelStream().map(Paths::get), null);
+    }
+
+    /**
+     * @return entities of a single file, which is closed when the stream is closed
+     */
+    public Stream<? extends T> read(@NonNull Path file) throws IOException {
+        Reader reader = newReader(file);
+        try {
+            return readerRecords(reader, null, false);
+        } catch (IOException | RuntimeException e) {
+            silentClose(reader);
+            throw e;
         }
     }
 
-    private Stream<CSVRecord> records(Collection<? extends Path> files) {
+    private Stream<? extends T> records(Stream<Path> files, Instant deadline) {
         return files
-                .stream()
-                .map(MappingResult.wrap(Files::newBufferedReader))
+                .map(MappingResult.wrap(this::newReader))
+                .peek(this::handleOpenFailure)
                 .filter(MappingResult::isSuccessful)
                 .map(MappingResult::getMappedValue)
-                .map(MappingResult.wrap(this::readerRecords))
+                .map(MappingResult.wrap(reader -> readerRecords(reader, deadline, true)))
                 .peek(this::handleParserInitFailure)
                 .filter(MappingResult::isSuccessful)
                 .flatMap(MappingResult::getMappedValue);
     }
 
-    private Stream<CSVRecord> readerRecords(Reader reader) throws IOException {
-        CSVParser parser = CSVParser.parse(reader, format);
-        return StreamSupport
-                .stream(parser.spliterator(), false)
-                .onClose(() -> silentClose(parser));
+    private Reader newReader(Path file) throws IOException {
+        return new InputStreamReader(
+                new ReadAheadFileInputStream(file, readBufferSize, readAheadDepth,
+                        ioWaitNanos, coverage.readBytesCounter()),
+                StandardCharsets.UTF_8);
+    }
+
+    private Stream<? extends T> readerRecords(Reader reader, Instant deadline, boolean sortedInputCutoffApplied)
+            throws IOException {
+        Stream<? extends T> records = recordsReader.read(reader);
+        if (sortedInputCutoffApplied && sortedInputCutoff != null) {
+            records = sortedInputCutoff.bound(records);
+        }
+        if (deadline == null) {
+            return records.onClose(coverage::fileCompleted);
+        }
+        AtomicBoolean interrupted = new AtomicBoolean();
+        return DeadlineBoundedSpliterator.bound(records, deadline, () -> {
+            interrupted.set(true);
+            coverage.inputCutShort();
+        }).onClose(() -> {
+            if (interrupted.get()) {
+                coverage.fileInterrupted();
+            } else {
+                coverage.fileCompleted();
+            }
+        });
+    }
+
+    private void handleOpenFailure(MappingResult<Path, Reader> mappingResult) {
+        if (!mappingResult.isSuccessful()) {
+            coverage.fileFailed();
+        }
     }
 
-    private void handleParserInitFailure(MappingResult<? extends Reader, Stream<CSVRecord>> mappingResult) {
+    private void handleParserInitFailure(MappingResult<? extends Reader, ? extends Stream<? extends T>> mappingResult) {
         if (!mappingResult.isSuccessful()) {
             silentClose(mappingResult.getInitialValue());
+            coverage.fileFailed();
         }
     }
 
-    private static void silentClose(Closeable closeable) {
+    static void silentClose(Closeable closeable) {
         try {
             closeable.close();
         } catch (IOException ignored) {
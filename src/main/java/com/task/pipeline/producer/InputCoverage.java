@@ -0,0 +1,78 @@
+package com.task.pipeline.producer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of input consumed by a producer, telling whether all of the input has been processed.
+ */
+public class InputCoverage {
+
+    private final LongAdder completedFiles = new LongAdder();
+    private final LongAdder interruptedFiles = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+    private final LongAdder readBytes = new LongAdder();
+    private final AtomicBoolean cutShort = new AtomicBoolean();
+
+    public long getCompletedFiles() {
+        return completedFiles.sum();
+    }
+
+    public long getInterruptedFiles() {
+        return interruptedFiles.sum();
+    }
+
+    /**
+     * @return number of found files skipped as they could not be opened or their parsing could not be started
+     */
+    public long getFailedFiles() {
+        return failedFiles.sum();
+    }
+
+    public long getReadBytes() {
+        return readBytes.sum();
+    }
+
+    /**
+     * @return whether every found file has been read to the end, so that the result is final
+     */
+    public boolean isComplete() {
+        return !cutShort.get() && getFailedFiles() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files completed, %d files interrupted, %d files failed, %d bytes read, result is %s",
+                getCompletedFiles(), getInterruptedFiles(), getFailedFiles(), getReadBytes(),
+                isComplete() ? "final" : "partial");
+    }
+
+    void fileCompleted() {
+        completedFiles.increment();
+    }
+
+    void fileInterrupted() {
+        interruptedFiles.increment();
+    }
+
+    void fileFailed() {
+        failedFiles.increment();
+    }
+
+    void inputCutShort() {
+        cutShort.set(true);
+    }
+
+    void reset() {
+        completedFiles.reset();
+        interruptedFiles.reset();
+        failedFiles.reset();
+        readBytes.reset();
+        cutShort.set(false);
+    }
+
+    LongAdder readBytesCounter() {
+        return readBytes;
+    }
+
+}
@@ -0,0 +1,325 @@
+package com.task.pipeline.producer;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds files in a directory, walking subdirectories in parallel if requested.
+ * Found files are streamed as soon as they are discovered, so that their processing can start before the walk ends.
+ * Include and exclude glob patterns are matched against paths relative to the directory,
+ * exclude patterns are also matched against subdirectories to skip them entirely.
+ */
+@RequiredArgsConstructor
+public class ParallelFileFinder {
+
+    private static final String DEFAULT_INCLUDE_PATTERN = "**.csv";
+
+    @NonNull
+    private final Path dir;
+    private final boolean recursive;
+    @NonNull
+    private final PathMatcher include;
+    @NonNull
+    private final Collection<PathMatcher> exclude;
+    private final int parallelism;
+
+    public static ParallelFileFinder withDefaultPatterns(Path dir) {
+        return of(dir, false, DEFAULT_INCLUDE_PATTERN, Collections.emptyList());
+    }
+
+    public static ParallelFileFinder of(@NonNull Path dir, boolean recursive,
+                                        @NonNull String includePattern, @NonNull Collection<String> excludePatterns) {
+        FileSystem fileSystem = dir.getFileSystem();
+        return new ParallelFileFinder(dir, recursive,
+                fileSystem.getPathMatcher("glob:" + includePattern),
+                excludePatterns.stream()
+                        .map(pattern -> fileSystem.getPathMatcher("glob:" + pattern))
+                        .collect(Collectors.toList()),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return stream of found regular files, split into a bounded number of parts taking files as they are discovered
+     */
+    public Stream<Path> find() throws IOException {
+        return find(directory -> {
+        });
+    }
+
+    /**
+     * @param directoryVisitor called for each searched directory before listing it, possibly concurrently
+     * @return stream of found regular files, split into a bounded number of parts taking files as they are discovered
+     */
+    public Stream<Path> find(@NonNull Consumer<? super Path> directoryVisitor) throws IOException {
+        return walk(new FoundFiles(), directoryVisitor);
+    }
+
+    /**
+     * @return stream of found regular files in the order of their paths, available only after the search ends
+     */
+    public Stream<Path> findInOrder() throws IOException {
+        return inOrder(find());
+    }
+
+    /**
+     * @param onExpiry called if the deadline passes before the search ends, which then stops
+     * @return stream of regular files found before the deadline in the order of their paths,
+     * available only after the search ends or the deadline passes
+     */
+    public Stream<Path> findInOrder(@NonNull Instant deadline, @NonNull Runnable onExpiry) throws IOException {
+        long deadlineNanos = System.nanoTime() + Duration.between(Instant.now(), deadline).toNanos();
+        return inOrder(walk(new FoundFiles(deadlineNanos, onExpiry), directory -> {
+        }));
+    }
+
+    private Stream<Path> walk(FoundFiles found, Consumer<? super Path> directoryVisitor) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            throw new NotDirectoryException(dir.toString());
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        pool.execute(new DirectoryWalk(dir, found, directoryVisitor, true));
+        return StreamSupport.stream(new FoundFilesSpliterator(found), false)
+                .onClose(pool::shutdownNow);
+    }
+
+    private static Stream<Path> inOrder(Stream<Path> files) {
+        FoundFiles sorted = new FoundFiles();
+        try (Stream<Path> unsorted = files) {
+            unsorted.sorted().forEachOrdered(sorted.queue::add);
+        }
+        sorted.queue.add(FoundFiles.END);
+        return StreamSupport.stream(new FoundFilesSpliterator(sorted), false);
+    }
+
+    private boolean isExcluded(Path path) {
+        Path relativePath = dir.relativize(path);
+        for (PathMatcher matcher : exclude) {
+            if (matcher.matches(relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class DirectoryWalk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path current;
+        private final FoundFiles found;
+        private final Consumer<? super Path> directoryVisitor;
+        private final boolean root;
+
+        private DirectoryWalk(Path current, FoundFiles found, Consumer<? super Path> directoryVisitor,
+                              boolean root) {
+            this.current = current;
+            this.found = found;
+            this.directoryVisitor = directoryVisitor;
+            this.root = root;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                List<DirectoryWalk> subdirectories = new ArrayList<>();
+                directoryVisitor.accept(current);
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(current)) {
+                    for (Path entry : entries) {
+                        if (isExcluded(entry)) {
+                            continue;
+                        }
+                        if (Files.isRegularFile(entry)) {
+                            if (include.matches(dir.relativize(entry))) {
+                                found.queue.add(entry);
+                            }
+                        } else if (recursive && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            DirectoryWalk walk = new DirectoryWalk(entry, found, directoryVisitor, false);
+                            walk.fork();
+                            subdirectories.add(walk);
+                        }
+                    }
+                } catch (IOException e) {
+                    listingFailed(e);
+                } catch (DirectoryIteratorException e) {
+                    listingFailed(e.getCause());
+                }
+                for (DirectoryWalk walk : subdirectories) {
+                    walk.join();
+                }
+            } finally {
+                if (root) {
+                    found.queue.add(FoundFiles.END);
+                }
+            }
+        }
+
+        /**
+         * Fails the search if the input directory itself can not be listed,
+         * unreadable subdirectories are skipped as unreadable files are.
+         */
+        private void listingFailed(IOException e) {
+            if (root) {
+                found.failure = e;
+            }
+        }
+    }
+
+    /**
+     * Files found by a search, followed by the end marker, the failure of the search if any,
+     * and the deadline of the search if it has one
+     */
+    private static class FoundFiles {
+
+        private static final Path END = Paths.get("");
+
+        private final BlockingQueue<Path> queue = new LinkedBlockingQueue<>();
+        private final AtomicInteger splitsLeft = new AtomicInteger(ForkJoinPool.getCommonPoolParallelism());
+        private final long deadlineNanos;
+        private final Runnable onExpiry;
+        private volatile IOException failure;
+        private volatile boolean ended;
+
+        private FoundFiles() {
+            this(0, null);
+        }
+
+        private FoundFiles(long deadlineNanos, Runnable onExpiry) {
+            this.deadlineNanos = deadlineNanos;
+            this.onExpiry = onExpiry;
+        }
+
+        private long nanosLeft() {
+            return onExpiry == null ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+        }
+    }
+
+    /**
+     * Spliterator taking files from the queue filled by the walk. It splits into as many parts as there are
+     * processing threads, which all take files from the same queue, so that files are spread among threads as they
+     * are discovered while the number of partial results held by the stream stays bounded.
+     */
+    private static class FoundFilesSpliterator implements Spliterator<Path> {
+
+        private final FoundFiles found;
+
+        private FoundFilesSpliterator(FoundFiles found) {
+            this.found = found;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Path> action) {
+            Path next = next();
+            if (next == null) {
+                return false;
+            }
+            action.accept(next);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Path> trySplit() {
+            if (found.ended || found.splitsLeft.getAndDecrement() <= 0) {
+                return null;
+            }
+            return new FoundFilesSpliterator(found);
+        }
+
+        @Override
+        public long estimateSize() {
+            return found.ended ? 0 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private Path next() {
+            if (found.ended) {
+                return null;
+            }
+            Taking taking = new Taking();
+            if (found.nanosLeft() > 0) {
+                try {
+                    ForkJoinPool.managedBlock(taking);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(
+                            new InterruptedIOException("Interrupted while waiting for found files"));
+                }
+            }
+            if (taking.taken == null) {
+                end();
+                found.onExpiry.run();
+                return null;
+            }
+            if (taking.taken == FoundFiles.END) {
+                end();
+                if (found.failure != null) {
+                    throw new UncheckedIOException(found.failure);
+                }
+                return null;
+            }
+            return taking.taken;
+        }
+
+        private void end() {
+            found.ended = true;
+            found.queue.add(FoundFiles.END); // releasing other parts waiting for files
+        }
+
+        /**
+         * Takes the next file, or nothing if the deadline of the search passes first
+         */
+        private class Taking implements ForkJoinPool.ManagedBlocker {
+
+            private Path taken;
+            private boolean expired;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (taken == null) {
+                    taken = found.queue.poll(found.nanosLeft(), TimeUnit.NANOSECONDS);
+                    expired = taken == null;
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return taken != null || expired || (taken = found.queue.poll()) != null;
+            }
+        }
+    }
+
+}
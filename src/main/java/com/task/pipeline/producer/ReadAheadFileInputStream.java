@@ -0,0 +1,152 @@
+package com.task.pipeline.producer;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Input stream reading a file with a number of asynchronous reads issued ahead of the consumer,
+ * so that the next chunks are usually in memory by the time the current one is consumed.
+ * Time spent blocked on reads which are not completed yet and number of bytes read are added to the given counters.
+ */
+public class ReadAheadFileInputStream extends InputStream {
+
+    private final AsynchronousFileChannel channel;
+    private final LongAdder waitNanos;
+    private final LongAdder readBytes;
+
+    private final Deque<PendingRead> pendingReads = new ArrayDeque<>();
+    private long nextPosition;
+    private boolean endReached;
+    private ByteBuffer current;
+
+    public ReadAheadFileInputStream(@NonNull Path file, int bufferSize, int readAheadDepth,
+                                    @NonNull LongAdder waitNanos, @NonNull LongAdder readBytes) throws IOException {
+        if (bufferSize <= 0 || readAheadDepth <= 0) {
+            throw new IllegalArgumentException("Buffer size and read-ahead depth must be positive");
+        }
+        this.channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ);
+        this.waitNanos = waitNanos;
+        this.readBytes = readBytes;
+        for (int i = 0; i < readAheadDepth; i++) {
+            submit(ByteBuffer.allocate(bufferSize));
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        readBytes.increment();
+        return current.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(length, current.remaining());
+        current.get(bytes, offset, count);
+        readBytes.add(count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        endReached = true;
+        pendingReads.clear();
+        channel.close();
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while (current == null || !current.hasRemaining()) {
+            if (current != null) {
+                submit(current);
+                current = null;
+            }
+            PendingRead read = pendingReads.poll();
+            if (read == null) {
+                return false;
+            }
+            current = read.complete();
+            if (!current.hasRemaining()) {
+                endReached = true;
+                pendingReads.clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void submit(ByteBuffer buffer) {
+        if (endReached) {
+            return;
+        }
+        buffer.clear();
+        pendingReads.add(new PendingRead(buffer, nextPosition, channel.read(buffer, nextPosition)));
+        nextPosition += buffer.capacity();
+    }
+
+    private int await(Future<Integer> future) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private class PendingRead {
+
+        private final ByteBuffer buffer;
+        private final long position;
+        private Future<Integer> future;
+
+        private PendingRead(ByteBuffer buffer, long position, Future<Integer> future) {
+            this.buffer = buffer;
+            this.position = position;
+            this.future = future;
+        }
+
+        /**
+         * Waits for the read and continues it until the buffer is full or the end of file is reached,
+         * since asynchronous reads are allowed to transfer fewer bytes than requested.
+         *
+         * @return buffer flipped for reading, empty if there is nothing to read at its position
+         */
+        private ByteBuffer complete() throws IOException {
+            while (await(future) >= 0 && buffer.hasRemaining()) {
+                future = channel.read(buffer, position + buffer.position());
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.task.pipeline.producer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.stream.Stream;
+
+@FunctionalInterface
+public interface RecordsReader<T> {
+
+    /**
+     * @return sequential stream of entities read from the reader, closing the reader when closed
+     */
+    Stream<T> read(Reader reader) throws IOException;
+}
@@ -0,0 +1,87 @@
+package com.task.pipeline.producer;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Ends reading of a file sorted by a key as soon as the key exceeds the current cutoff, beyond which entities
+ * can not get into the result any more. A file is read as sorted if its first entities are sorted,
+ * and it is read to the end if the order turns out to be broken before the cutoff is reached.
+ *
+ * @param <T> type of entities
+ */
+@RequiredArgsConstructor
+public class SortedInputCutoff<T> {
+
+    /**
+     * Key the whole comparator order of entities starts with
+     */
+    @NonNull
+    private final ToDoubleFunction<? super T> sortKey;
+    /**
+     * Key of the current cutoff, or positive infinity if there is none yet
+     */
+    @NonNull
+    private final DoubleSupplier cutoffKey;
+    /**
+     * Number of first entities of a file which must be sorted before the reading may end, 0 to trust any file
+     */
+    private final int probeSize;
+
+    <E extends T> Stream<E> bound(Stream<E> entities) {
+        return StreamSupport.stream(new SortedSpliterator<>(entities.spliterator()), false)
+                .onClose(entities::close);
+    }
+
+    private class SortedSpliterator<E extends T> implements Spliterator<E> {
+
+        private final Spliterator<E> source;
+
+        private double previousKey = Double.NEGATIVE_INFINITY;
+        private long count;
+        private boolean sorted = true;
+        private boolean ended;
+
+        private SortedSpliterator(Spliterator<E> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            return !ended && source.tryAdvance(entity -> {
+                double key = sortKey.applyAsDouble(entity);
+                if (key < previousKey) {
+                    sorted = false;
+                }
+                previousKey = key;
+                if (sorted && ++count > probeSize && key > cutoffKey.getAsDouble()) {
+                    ended = true;
+                } else {
+                    action.accept(entity);
+                }
+            }) && !ended;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return ended ? 0 : source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.task.pipeline.sampling;
+
+import com.task.pipeline.PartitionedProducer;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Estimates a cutoff entity, such that the limited result is very likely to consist of entities not greater
+ * than the cutoff, from a uniform sample of entities of random input partitions making up a fraction of the input size.
+ * Entities counts below the cutoff are extrapolated to the whole input by partitions sizes with group limits applied,
+ * which on average underestimates them, and the cutoff is raised further to cover the sampling error.
+ * As filtering by the cutoff keeps a prefix of the input in the comparator order, the result built from
+ * the filtered input is exact if it is full, otherwise the input has to be processed again without filtering.
+ *
+ * @param <T>  type of entities
+ * @param <ID> type of entities groups identifier
+ */
+@RequiredArgsConstructor
+public class SampledCutoffEstimator<T, ID> {
+
+    private static final int DEFAULT_SAMPLE_SIZE = 1 << 16;
+    /**
+     * Number of standard deviations of the sampled entities count the cutoff is raised by
+     */
+    private static final double CONFIDENCE_SIGMAS = 4;
+
+    /**
+     * Producer of the input sample, separate from the main one not to affect its statistics
+     */
+    @NonNull
+    private final PartitionedProducer<T> producer;
+    @NonNull
+    private final Function<? super T, ? extends ID> idMapper;
+    @NonNull
+    private final Comparator<? super T> comparator;
+    @NonNull
+    private final Function<? super T, ? extends T> materializer;
+    private final int groupLimit;
+    @Getter
+    private final int totalLimit;
+    /**
+     * Fraction of the input size to sample entities from
+     */
+    private final double inputFraction;
+    private final int sampleSize;
+
+    public SampledCutoffEstimator(PartitionedProducer<T> producer, Function<? super T, ? extends ID> idMapper,
+                                  Comparator<? super T> comparator, Function<? super T, ? extends T> materializer,
+                                  int groupLimit, int totalLimit, double inputFraction) {
+        this(producer, idMapper, comparator, materializer, groupLimit, totalLimit, inputFraction,
+                DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * @return predicate accepting entities not greater than the estimated cutoff,
+     * or null if the sample is too small to estimate it
+     */
+    public Predicate<T> estimateFilter() throws Exception {
+        List<String> partitions = new ArrayList<>(producer.partitions());
+        if (partitions.isEmpty()) {
+            return null;
+        }
+        Collections.shuffle(partitions, ThreadLocalRandom.current());
+        long[] sizes = new long[partitions.size()];
+        long inputSize = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = producer.partitionSize(partitions.get(i));
+            inputSize += sizes[i];
+        }
+        int sampledCount = 0;
+        long sampledSize = 0;
+        while (sampledCount < sizes.length && (sampledCount == 0 || sampledSize < inputSize * inputFraction)) {
+            sampledSize += sizes[sampledCount++];
+        }
+        List<String> sampledPartitions = partitions.subList(0, sampledCount);
+        Reservoir<T> reservoir;
+        try (Stream<? extends T> entities = producer.produce(sampledPartitions)) {
+            reservoir = entities.parallel().collect(Collector.of(
+                    () -> new Reservoir<T>(sampleSize), this::sample, Reservoir::combine,
+                    Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH));
+        }
+        if (reservoir.samples.isEmpty()) {
+            return null;
+        }
+        // partitions sizes vary, so entities count is extrapolated by size, not by number of partitions
+        double estimatedInputCount = (double) reservoir.seen * inputSize / Math.max(sampledSize, 1);
+        T cutoff = cutoff(reservoir.samples.stream()
+                        .map(Sample::getEntity)
+                        .sorted(comparator)
+                        .collect(Collectors.toList()),
+                reservoir.samples.size() / estimatedInputCount);
+        return cutoff == null ? null : entity -> comparator.compare(entity, cutoff) <= 0;
+    }
+
+    /**
+     * @param rate probability of an input entity to be sampled
+     * @return the first sampled entity, up to which the extrapolated count of entities fitting group limits
+     * covers the total limit with the required confidence, or null if there is no such entity
+     */
+    private T cutoff(List<T> sortedSample, double rate) {
+        Map<ID, Integer> groupsSizes = new HashMap<>();
+        double estimatedCount = 0;
+        for (T entity : sortedSample) {
+            int groupSize = groupsSizes.merge(idMapper.apply(entity), 1, Integer::sum);
+            estimatedCount += Math.min(groupLimit, groupSize / rate) - Math.min(groupLimit, (groupSize - 1) / rate);
+            double sampledCount = estimatedCount * rate;
+            if (sampledCount - CONFIDENCE_SIGMAS * Math.sqrt(sampledCount) >= totalLimit * rate) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private void sample(Reservoir<T> reservoir, T entity) {
+        reservoir.seen++;
+        long key = ThreadLocalRandom.current().nextLong();
+        if (reservoir.accepts(key)) {
+            reservoir.add(new Sample<>(key, materializer.apply(entity)));
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Sample<T> {
+
+        private final long key;
+        private final T entity;
+    }
+
+    /**
+     * Keeps entities with the least random keys, which makes a uniform sample of all entities seen
+     */
+    private static class Reservoir<T> {
+
+        private final int size;
+        private final PriorityQueue<Sample<T>> samples;
+        private long seen;
+
+        Reservoir(int size) {
+            this.size = size;
+            this.samples = new PriorityQueue<>(Comparator.comparingLong(Sample<T>::getKey).reversed());
+        }
+
+        boolean accepts(long key) {
+            return samples.size() < size || key < samples.peek().getKey();
+        }
+
+        void add(Sample<T> sample) {
+            if (samples.size() == size) {
+                samples.poll();
+            }
+            samples.add(sample);
+        }
+
+        Reservoir<T> combine(Reservoir<T> other) {
+            for (Sample<T> sample : other.samples) {
+                if (accepts(sample.getKey())) {
+                    add(sample);
+                }
+            }
+            seen += other.seen;
+            return this;
+        }
+    }
+}
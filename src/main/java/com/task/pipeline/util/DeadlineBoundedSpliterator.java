@@ -0,0 +1,71 @@
+package com.task.pipeline.util;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator ending as soon as the deadline passes, even if its source has more elements.
+ * The given callback is run once per spliterator cut short by the deadline.
+ *
+ * @param <T> type of elements
+ */
+public class DeadlineBoundedSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+    private final long deadlineNanos;
+    private final Runnable onExpiry;
+
+    private boolean expired;
+
+    private DeadlineBoundedSpliterator(Spliterator<T> source, long deadlineNanos, Runnable onExpiry) {
+        this.source = source;
+        this.deadlineNanos = deadlineNanos;
+        this.onExpiry = onExpiry;
+    }
+
+    public static <T> Stream<T> bound(@NonNull Stream<T> stream, @NonNull Instant deadline, @NonNull Runnable onExpiry) {
+        long deadlineNanos = System.nanoTime() + Duration.between(Instant.now(), deadline).toNanos();
+        return StreamSupport.stream(new DeadlineBoundedSpliterator<>(stream.spliterator(), deadlineNanos, onExpiry),
+                stream.isParallel())
+                .onClose(stream::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        return !isExpired() && source.tryAdvance(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (isExpired()) {
+            return null;
+        }
+        Spliterator<T> split = source.trySplit();
+        return split == null ? null : new DeadlineBoundedSpliterator<>(split, deadlineNanos, onExpiry);
+    }
+
+    @Override
+    public long estimateSize() {
+        return expired ? 0 : source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    public boolean isExpired() {
+        if (!expired && System.nanoTime() - deadlineNanos >= 0) {
+            expired = true;
+            onExpiry.run();
+        }
+        return expired;
+    }
+
+}
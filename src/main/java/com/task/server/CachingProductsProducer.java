@@ -0,0 +1,77 @@
+package com.task.server;
+
+import com.task.entity.ProductFilter;
+import com.task.entity.ProductView;
+import com.task.pipeline.EntitiesProducer;
+import com.task.pipeline.producer.FromDirCsvFilesProducer;
+import com.task.pipeline.producer.ParallelFileFinder;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Produces products of input files summaries instead of all their products, reusing cached listings and summaries.
+ */
+@RequiredArgsConstructor
+public class CachingProductsProducer implements EntitiesProducer<ProductView> {
+
+    @NonNull
+    private final FromDirCsvFilesProducer<? extends ProductView> filesProducer;
+    @NonNull
+    private final ParallelFileFinder fileFinder;
+    @NonNull
+    private final Object listingKey;
+    @NonNull
+    private final FileListingCache listingCache;
+    @NonNull
+    private final FileSummaryCache summaryCache;
+    /**
+     * Filter applied by the files producer, which summaries are selected with
+     */
+    @NonNull
+    private final ProductFilter filter;
+    private final int groupLimit;
+    private final int totalLimit;
+
+    private final SummariesCoverage coverage = new SummariesCoverage();
+
+    public SummariesCoverage getCoverage() {
+        return coverage;
+    }
+
+    @Override
+    public Stream<? extends ProductView> produce() throws IOException {
+        coverage.reset();
+        if (groupLimit <= 0 || totalLimit <= 0) {
+            return Stream.empty();
+        }
+        List<Path> files = listingCache.list(listingKey, fileFinder);
+        return files.parallelStream()
+                .flatMap(this::summarize);
+    }
+
+    private Stream<? extends ProductView> summarize(Path file) {
+        boolean[] read = {false};
+        List<? extends ProductView> summary;
+        try {
+            summary = summaryCache.summarize(file, filter, groupLimit, totalLimit, summarizedFile -> {
+                read[0] = true;
+                return filesProducer.read(summarizedFile);
+            });
+        } catch (IOException e) { // unreadable files are skipped as when reading them directly
+            coverage.fileFailed();
+            return Stream.empty();
+        }
+        if (read[0]) {
+            coverage.fileCompleted();
+        } else {
+            coverage.fileCached();
+        }
+        return summary.stream();
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.task.server;
+
+import com.task.pipeline.producer.ParallelFileFinder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Least recently used cache of input files listings.
+ * A listing stays valid while modification times of all searched directories are unchanged,
+ * since adding, removing or renaming an entry updates modification time of its directory.
+ */
+public class FileListingCache {
+
+    private final Map<Object, Listing> listings;
+
+    public FileListingCache(int maxSize) {
+        this.listings = Collections.synchronizedMap(new LinkedHashMap<Object, Listing>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Listing> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @param key identifies the search, equal keys must denote finders searching the same files
+     */
+    public List<Path> list(@NonNull Object key, @NonNull ParallelFileFinder finder) throws IOException {
+        Listing listing = listings.get(key);
+        if (listing != null && listing.isValid()) {
+            return listing.files;
+        }
+        Map<Path, FileTime> directories = new ConcurrentHashMap<>();
+        List<Path> files;
+        try (Stream<Path> found = finder.find(directory -> directories.put(directory, lastModifiedTime(directory)))) {
+            files = Collections.unmodifiableList(found.collect(Collectors.toList()));
+        }
+        listings.put(key, new Listing(files, directories));
+        return files;
+    }
+
+    private static FileTime lastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static class Listing {
+
+        private final List<Path> files;
+        private final Map<Path, FileTime> directories;
+
+        private Listing(List<Path> files, Map<Path, FileTime> directories) {
+            this.files = files;
+            this.directories = directories;
+        }
+
+        private boolean isValid() {
+            for (Map.Entry<Path, FileTime> directory : directories.entrySet()) {
+                if (!directory.getValue().equals(lastModifiedTime(directory.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.task.server;
+
+import com.task.entity.Product;
+import com.task.entity.ProductFilter;
+import com.task.entity.ProductView;
+import com.task.pipeline.processor.collection.AbstractLimitedSortedSet;
+import com.task.pipeline.processor.collection.GroupingLimitedSortedSet;
+import com.task.pipeline.processor.collection.LimitedSortedSet;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Least recently used cache of input files summaries, which are sorted lists of products selected from a file
+ * with the same filter and group limit and no lower total limit than requested.
+ * Selecting from summaries of all files gives the same result as selecting from the files themselves,
+ * since a product excluded from its file summary is preceded by enough products to be excluded from the result.
+ * A summary stays valid while its file size and modification time are unchanged.
+ */
+public class FileSummaryCache {
+
+    private final Comparator<? super ProductView> comparator;
+    private final long maxProductsCount;
+
+    private final Map<Key, Summary> summaries = new LinkedHashMap<>(16, 0.75f, true);
+    private long productsCount;
+
+    public FileSummaryCache(@NonNull Comparator<? super ProductView> comparator, long maxProductsCount) {
+        this.comparator = comparator;
+        this.maxProductsCount = maxProductsCount;
+    }
+
+    /**
+     * @param reader reads products of the file matching the filter if there is no valid summary
+     * @return sorted products of the file summary
+     */
+    public List<Product> summarize(@NonNull Path file, @NonNull ProductFilter filter, int groupLimit, int totalLimit,
+                                   @NonNull ProductsReader reader) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Key key = new Key(file, filter, groupLimit < totalLimit ? groupLimit : Integer.MAX_VALUE);
+        Summary summary = get(key);
+        if (summary != null && summary.isValidFor(attributes, totalLimit)) {
+            return summary.products.subList(0, Math.min(totalLimit, summary.products.size()));
+        }
+        AbstractLimitedSortedSet<ProductView, ?> selected = key.groupLimit < totalLimit ?
+                new GroupingLimitedSortedSet<ProductView, Integer>(ProductView::getId, comparator,
+                        ProductView::toProduct, key.groupLimit, totalLimit) :
+                new LimitedSortedSet<ProductView>(comparator, ProductView::toProduct, totalLimit);
+        try (Stream<? extends ProductView> products = reader.read(file)) {
+            products.forEach(selected::add);
+        }
+        List<Product> products = new ArrayList<>(selected.size());
+        for (ProductView product : selected) {
+            products.add(product.toProduct());
+        }
+        put(key, new Summary(attributes.size(), attributes.lastModifiedTime(), totalLimit, products));
+        return products;
+    }
+
+    private synchronized Summary get(Key key) {
+        return summaries.get(key);
+    }
+
+    private synchronized void put(Key key, Summary summary) {
+        if (summary.products.size() > maxProductsCount) {
+            return;
+        }
+        Summary replaced = summaries.put(key, summary);
+        productsCount += summary.products.size() - (replaced == null ? 0 : replaced.products.size());
+        Iterator<Summary> eldest = summaries.values().iterator();
+        while (productsCount > maxProductsCount) {
+            productsCount -= eldest.next().products.size();
+            eldest.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ProductsReader {
+        Stream<? extends ProductView> read(Path file) throws IOException;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+
+        private final Path file;
+        private final ProductFilter filter;
+        private final int groupLimit;
+    }
+
+    @RequiredArgsConstructor
+    private static class Summary {
+
+        private final long size;
+        private final FileTime lastModifiedTime;
+        private final int totalLimit;
+        private final List<Product> products;
+
+        private boolean isValidFor(BasicFileAttributes attributes, int totalLimit) {
+            return size == attributes.size()
+                    && lastModifiedTime.equals(attributes.lastModifiedTime())
+                    && this.totalLimit >= totalLimit;
+        }
+    }
+
+}
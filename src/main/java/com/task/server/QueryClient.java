@@ -0,0 +1,58 @@
+package com.task.server;
+
+import picocli.CommandLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thin client sending processor arguments to {@link QueryServer} and printing its messages.
+ * Exits with the status of the query.
+ */
+@CommandLine.Command(name = "csv-processor-client", showDefaultValues = true)
+public class QueryClient {
+
+    @CommandLine.Option(names = {"--server-port"}, defaultValue = "7171", description = "Loopback port of the server")
+    private int port;
+    @CommandLine.Unmatched
+    private List<String> queryArgs = new ArrayList<>();
+
+    public static void main(String[] args) {
+        QueryClient client = new QueryClient();
+        new CommandLine(client).setUnmatchedOptionsArePositionalParams(true).parseArgs(args);
+        try {
+            System.exit(client.query());
+        } catch (IOException e) {
+            System.out.println("Query error: " + e);
+            System.exit(1);
+        }
+    }
+
+    private int query() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8.name());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            out.println(QueryServer.escape(Paths.get("").toAbsolutePath().toString()));
+            out.println(queryArgs.size());
+            queryArgs.stream().map(QueryServer::escape).forEach(out::println);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(QueryServer.EXIT_STATUS_PREFIX)) {
+                    return Integer.parseInt(line.substring(QueryServer.EXIT_STATUS_PREFIX.length()));
+                }
+                System.out.println(line);
+            }
+            throw new IOException("Connection closed before query completion");
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.task.server;
+
+import com.task.Configuration;
+import com.task.Runner;
+import com.task.entity.ProductView;
+import com.task.pipeline.EntitiesProducer;
+import com.task.pipeline.processor.SharedCutoff;
+import com.task.pipeline.producer.FromDirCsvFilesProducer;
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resident server processing queries from {@link QueryClient} within a single warmed-up JVM.
+ * <p>
+ * A query is sent as lines of text: client working directory, then the number of processor arguments,
+ * then the arguments one per line, with backslashes and line breaks escaped by {@link #escape(String)}.
+ * Processing messages are sent back as lines of text,
+ * followed by the {@link #EXIT_STATUS_PREFIX} line with the exit status.
+ * Queries without a deadline, checkpoints or sorted input are served from cached input listings and files summaries.
+ */
+public class QueryServer {
+
+    static final String EXIT_STATUS_PREFIX = "EXIT ";
+    static final int MAX_ARGS_COUNT = 1024;
+
+    private final ServerConfiguration configuration;
+    private final FileListingCache listingCache;
+    private final FileSummaryCache summaryCache;
+
+    public QueryServer(@NonNull ServerConfiguration configuration) {
+        this.configuration = configuration;
+        this.listingCache = new FileListingCache(configuration.getListingCacheSize());
+        this.summaryCache = new FileSummaryCache(Runner.PRODUCTS_COMPARATOR, configuration.getSummaryCacheSize());
+    }
+
+    public static void main(String[] args) {
+        try {
+            new QueryServer(ServerConfiguration.parse(args)).serve();
+        } catch (Exception e) {
+            System.out.println("Serving error: " + e);
+            System.exit(1);
+        }
+    }
+
+    public void serve() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+        try (ServerSocket serverSocket = new ServerSocket(configuration.getPort(), 0, InetAddress.getLoopbackAddress())) {
+            System.out.println("Serving queries on " + serverSocket.getLocalSocketAddress());
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             PrintStream out = new PrintStream(client.getOutputStream(), true, StandardCharsets.UTF_8.name())) {
+            handle(in, out);
+        } catch (IOException e) {
+            System.out.println("Query handling error: " + e);
+        }
+    }
+
+    /**
+     * Reads a query and sends back its messages and exit status, does nothing if the query is cut short.
+     * Queries with an arguments count that is not a number from 0 to {@link #MAX_ARGS_COUNT} fail at once.
+     */
+    void handle(BufferedReader in, PrintStream out) throws IOException {
+        String workingDir = in.readLine();
+        String argsCount = in.readLine();
+        if (workingDir == null || argsCount == null) {
+            return;
+        }
+        int count;
+        try {
+            count = Integer.parseInt(argsCount);
+        } catch (NumberFormatException e) {
+            count = -1;
+        }
+        if (count < 0 || count > MAX_ARGS_COUNT) {
+            out.println("Invalid arguments count: " + argsCount);
+            out.println(EXIT_STATUS_PREFIX + 1);
+            return;
+        }
+        String[] args = new String[count];
+        for (int i = 0; i < args.length; i++) {
+            String arg = in.readLine();
+            if (arg == null) {
+                return;
+            }
+            args[i] = unescape(arg);
+        }
+        int status = query(unescape(workingDir), args, out);
+        out.println(EXIT_STATUS_PREFIX + status);
+    }
+
+    /**
+     * @return the value as a single line, with backslashes, line feeds and carriage returns escaped by backslashes
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * @return the value escaped by {@link #escape(String)}
+     */
+    static String unescape(String line) {
+        StringBuilder value = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                value.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    /**
+     * @return exit status of the query
+     */
+    int query(String workingDir, String[] args, PrintStream out) {
+        int[] status = {0};
+        Configuration configuration = Configuration.parse(args, out, exitStatus -> status[0] = exitStatus);
+        if (configuration == null) {
+            return status[0];
+        }
+        configuration.resolvePaths(Paths.get(workingDir));
+        SharedCutoff<ProductView> sharedCutoff = new SharedCutoff<>(Runner.PRODUCTS_COMPARATOR);
+        FromDirCsvFilesProducer<ProductView> filesProducer = Runner.configureProducer(configuration, sharedCutoff);
+        // deadlines, checkpoints and sorted input cutoffs need input read from files,
+        // caching producer only gives the whole input at once from summaries of whole files
+        EntitiesProducer<ProductView> producer;
+        Object coverage;
+        if (configuration.getDeadlineMillis() > 0
+                || configuration.getCheckpointIntervalSeconds() > 0
+                || configuration.getSortedInput() != Configuration.SortedInput.NO) {
+            producer = filesProducer;
+            coverage = filesProducer.getCoverage();
+        } else {
+            CachingProductsProducer cachingProducer = new CachingProductsProducer(filesProducer,
+                    Runner.configureFileFinder(configuration),
+                    Arrays.asList(configuration.getInputDir(), configuration.isRecursive(),
+                            configuration.getIncludePattern(), configuration.getExcludePatterns()),
+                    listingCache, summaryCache, Runner.configureFilter(configuration),
+                    configuration.getGroupLimit(), configuration.getLimit());
+            producer = cachingProducer;
+            coverage = cachingProducer.getCoverage();
+        }
+        return Runner.execute(Runner.configurePipeline(configuration, producer, sharedCutoff),
+                filesProducer, coverage, out) ? 0 : 1;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.task.server;
+
+import lombok.Getter;
+import picocli.CommandLine;
+
+@Getter
+@CommandLine.Command(name = "csv-processor-server", sortOptions = false, showDefaultValues = true)
+public class ServerConfiguration {
+
+    @CommandLine.Option(names = {"--port"}, defaultValue = "7171", description = "Loopback port to accept queries on")
+    private int port;
+    @CommandLine.Option(names = {"-c", "--concurrency"}, defaultValue = "2",
+            description = "Maximum number of queries processed at the same time")
+    private int concurrency;
+    @CommandLine.Option(names = {"--listing-cache"}, defaultValue = "64",
+            description = "Maximum number of cached input directories listings")
+    private int listingCacheSize;
+    @CommandLine.Option(names = {"--summary-cache"}, defaultValue = "10000000",
+            description = "Maximum total number of entities in cached input files summaries")
+    private long summaryCacheSize;
+
+    @CommandLine.Option(names = {"-h", "--help"}, usageHelp = true, description = "Display this help message")
+    private boolean usageHelpRequested;
+
+    public static ServerConfiguration parse(String[] args) {
+        ServerConfiguration configuration = new ServerConfiguration();
+        CommandLine commandLine = new CommandLine(configuration);
+        try {
+            commandLine.parseArgs(args);
+            if (commandLine.isUsageHelpRequested()) {
+                commandLine.usage(System.out);
+                System.exit(0);
+            }
+        } catch (CommandLine.ParameterException e) {
+            System.out.println("Configuration parsing error: " + e.getMessage());
+            commandLine.usage(System.out);
+            System.exit(1);
+        }
+        return configuration;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.task.server;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of input files summarized by {@link CachingProductsProducer}, telling whether all of them have been
+ * processed.
+ */
+public class SummariesCoverage {
+
+    private final LongAdder completedFiles = new LongAdder();
+    private final LongAdder cachedFiles = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+
+    /**
+     * @return number of files read to the end to summarize them
+     */
+    public long getCompletedFiles() {
+        return completedFiles.sum();
+    }
+
+    /**
+     * @return number of files with valid cached summaries, which have not been read
+     */
+    public long getCachedFiles() {
+        return cachedFiles.sum();
+    }
+
+    /**
+     * @return number of found files skipped as they could not be read
+     */
+    public long getFailedFiles() {
+        return failedFiles.sum();
+    }
+
+    /**
+     * @return whether every found file has been summarized, so that the result is final
+     */
+    public boolean isComplete() {
+        return getFailedFiles() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files completed, %d files served from cache, %d files failed, result is %s",
+                getCompletedFiles(), getCachedFiles(), getFailedFiles(), isComplete() ? "final" : "partial");
+    }
+
+    void fileCompleted() {
+        completedFiles.increment();
+    }
+
+    void fileCached() {
+        cachedFiles.increment();
+    }
+
+    void fileFailed() {
+        failedFiles.increment();
+    }
+
+    void reset() {
+        completedFiles.reset();
+        cachedFiles.reset();
+        failedFiles.reset();
+    }
+
+}
@@ -3,10 +3,20 @@ package com.task.entity;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Comparator;
+import java.util.function.Function;
+
 @Getter
 @RequiredArgsConstructor
 public class SimpleEntity {
 
+    public static final Comparator<SimpleEntity> COMPARATOR =
+            Comparator.comparingDouble(SimpleEntity::getPrice).thenComparingInt(SimpleEntity::getId);
+    /**
+     * Identity of an entity to compare outputs by, as entities have no equality of their own
+     */
+    public static final Function<SimpleEntity, String> KEY = entity -> entity.getId() + ":" + entity.getPrice();
+
     private final int id;
     private final double price;
 }
@@ -0,0 +1,187 @@
+package com.task.pipeline;
+
+import com.task.entity.SimpleEntity;
+import com.task.pipeline.checkpoint.Checkpoint;
+import com.task.pipeline.checkpoint.Checkpointing;
+import com.task.pipeline.checkpoint.FileCheckpointStore;
+import com.task.pipeline.producer.FromDirCsvFilesProducer;
+import com.task.pipeline.sampling.SampledCutoffEstimator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class EntitiesPipelineTest {
+
+    private static final int FILES_COUNT = 100;
+    private static final int FILE_SIZE = 100;
+
+    @TempDir
+    Path tempDir;
+    private Path inputDir;
+
+    @BeforeEach
+    public void createFiles() throws IOException {
+        inputDir = Files.createDirectory(tempDir.resolve("input"));
+        for (int i = 0; i < FILES_COUNT; i++) {
+            int file = i;
+            SimpleEntityFiles.write(inputDir.resolve(file + ".csv"), IntStream.range(0, FILE_SIZE)
+                    .mapToObj(row -> new SimpleEntity(row % 50, (file * 31 + row * 17) % 1000))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void resumedExecutionMustSkipCompletedFilesAndGiveTheSameResultAsUninterruptedOne() throws Exception {
+        // given
+        Path checkpointFile = tempDir.resolve("checkpoint");
+        List<String> expected = new ArrayList<>();
+        new EntitiesPipeline<>(producer(), processor(), SimpleEntityFiles.keysCollector(expected))
+                .execute();
+        String lastFile = inputDir.resolve((FILES_COUNT - 1) + ".csv").toString();
+        List<String> readFiles = new ArrayList<>();
+        PartitionedProducer<SimpleEntity> failingProducer = new RecordingProducer(producer(), readFiles) {
+            @Override
+            public Stream<? extends SimpleEntity> produce(List<String> partitions) throws Exception {
+                if (partitions.contains(lastFile)) {
+                    throw new IOException("Failure");
+                }
+                return super.produce(partitions);
+            }
+        };
+        Assertions.assertThatThrownBy(() ->
+                new EntitiesPipeline<>(failingProducer, processor(), entities -> {}, null,
+                        checkpointing(checkpointFile, false), null).execute())
+                .isInstanceOf(IOException.class);
+        int completedBeforeFailure = readFiles.size();
+        // when
+        List<String> actual = new ArrayList<>();
+        new EntitiesPipeline<>(new RecordingProducer(producer(), readFiles), processor(),
+                SimpleEntityFiles.keysCollector(actual), null, checkpointing(checkpointFile, true), null)
+                .execute();
+        // then
+        Assertions.assertThat(completedBeforeFailure)
+                .isPositive();
+        Assertions.assertThat(readFiles)
+                .hasSize(FILES_COUNT)
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(actual)
+                .isEqualTo(expected);
+        Assertions.assertThat(checkpointFile)
+                .doesNotExist();
+    }
+
+    @Test
+    public void checkpointMustNotBeLoadedForDifferentQuery() throws Exception {
+        // given
+        Path checkpointFile = tempDir.resolve("checkpoint");
+        new FileCheckpointStore<SimpleEntity>(checkpointFile, "limit=10",
+                (entity, out) -> out.writeInt(entity.getId()), in -> new SimpleEntity(in.readInt(), 0))
+                .save(new Checkpoint<>(new HashSet<>(), new ArrayList<>()));
+        // when
+        Checkpointing<SimpleEntity> checkpointing = checkpointing(checkpointFile, true);
+        // then
+        Assertions.assertThatThrownBy(() -> checkpointing.getStore().load())
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void inputMustBeProcessedAgainWithoutFilteringIfEstimatedCutoffIsTooLow() throws Exception {
+        // given
+        List<String> expected = new ArrayList<>();
+        new EntitiesPipeline<>(producer(), processor(), SimpleEntityFiles.keysCollector(expected))
+                .execute();
+        SampledCutoffEstimator<SimpleEntity, Integer> estimator = new SampledCutoffEstimator<SimpleEntity, Integer>(
+                producer(), SimpleEntity::getId, SimpleEntity.COMPARATOR, Function.identity(), 3, 100, 0.1) {
+            @Override
+            public Predicate<SimpleEntity> estimateFilter() {
+                return entity -> entity.getPrice() < 10;
+            }
+        };
+        FromDirCsvFilesProducer<SimpleEntity> producer = producer();
+        // when
+        List<String> actual = new ArrayList<>();
+        new EntitiesPipeline<>(producer, processor(), SimpleEntityFiles.keysCollector(actual),
+                null, null, estimator).execute();
+        // then
+        Assertions.assertThat(actual)
+                .isEqualTo(expected);
+        Assertions.assertThat(producer.getCoverage().getCompletedFiles())
+                .isEqualTo(FILES_COUNT);
+    }
+
+    @Test
+    public void pipelineMustRejectDeadlineIfProducerDoesNotSupportIt() {
+        // given
+        EntitiesProducer<SimpleEntity> producer = Stream::empty;
+        // when
+        // then
+        Assertions.assertThatThrownBy(() ->
+                new EntitiesPipeline<>(producer, processor(), entities -> {}, Duration.ofSeconds(1), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private FromDirCsvFilesProducer<SimpleEntity> producer() {
+        return SimpleEntityFiles.producer(inputDir);
+    }
+
+    private static EntitiesProcessor<SimpleEntity> processor() {
+        return SimpleEntityFiles.processor(3, 100);
+    }
+
+    private static Checkpointing<SimpleEntity> checkpointing(Path checkpointFile, boolean resume) {
+        // a tiny interval makes every file a separate batch after the first one
+        return new Checkpointing<>(new FileCheckpointStore<>(checkpointFile, "limit=100",
+                (entity, out) -> {
+                    out.writeInt(entity.getId());
+                    out.writeDouble(entity.getPrice());
+                },
+                in -> new SimpleEntity(in.readInt(), in.readDouble())),
+                Duration.ofNanos(1), resume);
+    }
+
+    private static class RecordingProducer implements PartitionedProducer<SimpleEntity> {
+
+        private final PartitionedProducer<SimpleEntity> producer;
+        private final List<String> readPartitions;
+
+        RecordingProducer(PartitionedProducer<SimpleEntity> producer, List<String> readPartitions) {
+            this.producer = producer;
+            this.readPartitions = readPartitions;
+        }
+
+        @Override
+        public Stream<? extends SimpleEntity> produce() throws Exception {
+            return producer.produce();
+        }
+
+        @Override
+        public List<String> partitions() throws Exception {
+            return producer.partitions();
+        }
+
+        @Override
+        public long partitionSize(String partition) throws Exception {
+            return producer.partitionSize(partition);
+        }
+
+        @Override
+        public Stream<? extends SimpleEntity> produce(List<String> partitions) throws Exception {
+            readPartitions.addAll(partitions);
+            return producer.produce(partitions);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.task.pipeline;
+
+import com.task.entity.SimpleEntity;
+import com.task.pipeline.processor.SpaceOptimizedProcessor;
+import com.task.pipeline.producer.FromDirCsvFilesProducer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Input files of simple entities, one "id,price" row per entity, and the pipeline parts processing them.
+ */
+public class SimpleEntityFiles {
+
+    public static void write(Path file, List<SimpleEntity> entities) throws IOException {
+        Files.write(file, entities.stream()
+                .map(entity -> entity.getId() + "," + entity.getPrice())
+                .collect(Collectors.toList()));
+    }
+
+    public static List<SimpleEntity> randomEntities(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new SimpleEntity(ThreadLocalRandom.current().nextInt(500),
+                        ThreadLocalRandom.current().nextInt(1_000_000) / 100.0))
+                .collect(Collectors.toList());
+    }
+
+    public static FromDirCsvFilesProducer<SimpleEntity> producer(Path dir) {
+        return FromDirCsvFilesProducer.withDefaultFormat(
+                record -> new SimpleEntity(Integer.parseInt(record.get(0)), Double.parseDouble(record.get(1))),
+                dir);
+    }
+
+    /**
+     * @return consumer adding identities of the output entities to the given list
+     */
+    public static EntitiesConsumer<SimpleEntity> keysCollector(List<String> keys) {
+        return entities -> entities.map(SimpleEntity.KEY).forEach(keys::add);
+    }
+
+    public static EntitiesProcessor<SimpleEntity> processor(int groupLimit, int totalLimit) {
+        return new SpaceOptimizedProcessor<>(SimpleEntity::getId, SimpleEntity.COMPARATOR, groupLimit, totalLimit);
+    }
+}
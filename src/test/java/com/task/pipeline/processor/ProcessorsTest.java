@@ -17,14 +17,14 @@ import java.util.stream.Stream;
 
 public class ProcessorsTest {
 
-    public static final Comparator<SimpleEntity> DEFAULT_COMPARATOR =
-            Comparator.comparingDouble(SimpleEntity::getPrice).thenComparingInt(SimpleEntity::getId);
+    public static final Comparator<SimpleEntity> DEFAULT_COMPARATOR = SimpleEntity.COMPARATOR;
 
     @ParameterizedTest
     @ValueSource(classes = {
             TimeOptimizedConcurrentGroupingProcessor.class,
             TimeOptimizedForkJoinGroupingProcessor.class,
-            SpaceOptimizedProcessor.class})
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
     public void outputMustBeSortedAccordingToComparator(Class<? extends EntitiesProcessor> impl) {
         // given
         Comparator<SimpleEntity> comparator = DEFAULT_COMPARATOR;
@@ -43,7 +43,8 @@ public class ProcessorsTest {
     @ValueSource(classes = {
             TimeOptimizedConcurrentGroupingProcessor.class,
             TimeOptimizedForkJoinGroupingProcessor.class,
-            SpaceOptimizedProcessor.class})
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
     public void outputMustBeLimitedIfInputExceedsTotalLimit(Class<? extends EntitiesProcessor> impl) {
         // given
         int totalLimit = 1000;
@@ -61,7 +62,8 @@ public class ProcessorsTest {
     @ValueSource(classes = {
             TimeOptimizedConcurrentGroupingProcessor.class,
             TimeOptimizedForkJoinGroupingProcessor.class,
-            SpaceOptimizedProcessor.class})
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
     public void outputForGroupMustBeLimitedIfAnyInputGroupSizeExceedsNonZeroGroupLimit(Class<? extends EntitiesProcessor> impl) {
         // given
         int groupLimit = 20;
@@ -89,7 +91,8 @@ public class ProcessorsTest {
     @ValueSource(classes = {
             TimeOptimizedConcurrentGroupingProcessor.class,
             TimeOptimizedForkJoinGroupingProcessor.class,
-            SpaceOptimizedProcessor.class})
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
     public void outputMustBeEmptyIfGroupLimitIsZero(Class<? extends EntitiesProcessor> impl) {
         // given
         int groupLimit = 0;
@@ -109,7 +112,8 @@ public class ProcessorsTest {
     @ValueSource(classes = {
             TimeOptimizedConcurrentGroupingProcessor.class,
             TimeOptimizedForkJoinGroupingProcessor.class,
-            SpaceOptimizedProcessor.class})
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
     public void outputMustBeEmptyIfTotalLimitIsZero(Class<? extends EntitiesProcessor> impl) {
         // given
         int groupLimit = 1;
@@ -129,7 +133,8 @@ public class ProcessorsTest {
     @ValueSource(classes = {
             TimeOptimizedConcurrentGroupingProcessor.class,
             TimeOptimizedForkJoinGroupingProcessor.class,
-            SpaceOptimizedProcessor.class})
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
     public void outputMustBeSortedAccordingToComparatorAndLimitedIfInputExceedsTotalLimitAndAnyInputGroupSizeExceedsGroupLimit(Class<? extends EntitiesProcessor> impl) {
         // given
         Comparator<SimpleEntity> comparator = DEFAULT_COMPARATOR;
@@ -168,6 +173,33 @@ public class ProcessorsTest {
     }
 
 
+    @ParameterizedTest
+    @ValueSource(classes = {
+            TimeOptimizedConcurrentGroupingProcessor.class,
+            TimeOptimizedForkJoinGroupingProcessor.class,
+            SpaceOptimizedProcessor.class,
+            LargeLimitOptimizedProcessor.class})
+    public void outputMustBeEqualToSortedDistinctInputPrefixIfInputGreatlyExceedsTotalLimit(Class<? extends EntitiesProcessor> impl) {
+        // given
+        Comparator<SimpleEntity> comparator = DEFAULT_COMPARATOR;
+        int totalLimit = 1000;
+        int inputSize = totalLimit * 50;
+        EntitiesProcessor<SimpleEntity> processor = processor(impl, comparator, Integer.MAX_VALUE, totalLimit);
+        List<SimpleEntity> collectedInput = withUniqueIdsAndRandomPrices(inputSize).collect(Collectors.toList());
+        collectedInput.addAll(collectedInput.subList(0, inputSize / 2));
+        // when
+        Stream<? extends SimpleEntity> output = processor.process(collectedInput.stream());
+        // then
+        List<SimpleEntity> expectedOutput = collectedInput.stream()
+                .distinct()
+                .sorted(comparator)
+                .limit(totalLimit)
+                .collect(Collectors.toList());
+        List<SimpleEntity> collectedOutput = output.collect(Collectors.toList());
+        Assertions.assertThat(collectedOutput)
+                .containsExactlyElementsOf(expectedOutput);
+    }
+
     private EntitiesProcessor<SimpleEntity> processor(Class<? extends EntitiesProcessor> impl,
                                                       int maxEntitiesPerGroup, int maxTotalEntities) {
         return processor(impl, DEFAULT_COMPARATOR, maxEntitiesPerGroup, maxTotalEntities);
@@ -0,0 +1,44 @@
+package com.task.pipeline.processor.collection;
+
+import com.task.entity.SimpleEntity;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class SortedRunsMergerTest {
+
+    @ParameterizedTest
+    @CsvSource({"0, 3, 10", "1, 3, 10", "2, 3, 10", "7, 3, 100", "64, 5, 1000", "100, 1000, 1000"})
+    public void mergedRunsMustBeEqualToGroupLimitedSetOfAllItems(int runsCount, int groupLimit, int totalLimit) {
+        // given
+        List<SimpleEntity> items = new ArrayList<>();
+        List<GroupingLimitedSortedSet<SimpleEntity, Integer>> runs = new ArrayList<>();
+        for (int i = 0; i < runsCount; i++) {
+            GroupingLimitedSortedSet<SimpleEntity, Integer> run =
+                    new GroupingLimitedSortedSet<>(SimpleEntity::getId, SimpleEntity.COMPARATOR,
+                            groupLimit, totalLimit);
+            IntStream.range(0, ThreadLocalRandom.current().nextInt(totalLimit * 2))
+                    .mapToObj(j -> new SimpleEntity(ThreadLocalRandom.current().nextInt(50),
+                            ThreadLocalRandom.current().nextInt(10_000) / 100.0))
+                    .peek(items::add)
+                    .forEach(run::add);
+            runs.add(run);
+        }
+        GroupingLimitedSortedSet<SimpleEntity, Integer> expected =
+                new GroupingLimitedSortedSet<>(SimpleEntity::getId, SimpleEntity.COMPARATOR,
+                        groupLimit, totalLimit);
+        items.forEach(expected::add);
+        // when
+        List<SimpleEntity> merged = new SortedRunsMerger<SimpleEntity, Integer>(SimpleEntity::getId,
+                SimpleEntity.COMPARATOR, groupLimit, totalLimit).merge(runs);
+        // then
+        Assertions.assertThat(merged.stream().map(SimpleEntity.KEY).collect(Collectors.toList()))
+                .isEqualTo(expected.stream().map(SimpleEntity.KEY).collect(Collectors.toList()));
+    }
+}
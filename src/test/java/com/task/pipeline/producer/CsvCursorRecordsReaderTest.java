@@ -0,0 +1,110 @@
+package com.task.pipeline.producer;
+
+import com.task.Runner;
+import com.task.entity.ProductFilter;
+import com.task.entity.ProductFlyweight;
+import com.task.entity.ProductView;
+import com.task.pipeline.processor.collection.LimitedSortedSet;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class CsvCursorRecordsReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void readerMustSkipInvalidRecordsAndMaterializeOnlyAdmittedOnes() throws IOException {
+        // given
+        Path file = Files.write(tempDir.resolve("input.csv"), Arrays.asList(
+                "1,a,new,NY,3.5", "x,b,new,NY,1.0", "2,c,used,CA", "3,\"d, e\",used,CA,2.25", "4,f,new,TX,9"));
+        LimitedSortedSet<ProductView> set =
+                new LimitedSortedSet<>(Runner.PRODUCTS_COMPARATOR, ProductView::toProduct, 2);
+        // when
+        try (Stream<ProductFlyweight> records = read(file)) {
+            records.forEach(set::add);
+        }
+        // then
+        List<String> names = set.stream().map(ProductView::getName).collect(Collectors.toList());
+        Assertions.assertThat(names)
+                .containsExactly("d, e", "a");
+    }
+
+    @Test
+    public void readerMustEmitOnlyRecordsMatchingFilter() throws IOException {
+        // given
+        Path file = Files.write(tempDir.resolve("input.csv"), Arrays.asList(
+                "1,a,new,NY,3.5", "2,b,used,CA,1.0", "3,c,used,CA,2.25", "4,d,new,TX,9", "5,e,new,NV,5"));
+        ProductFilter byCondition = new ProductFilter("used", Collections.emptyList(), 2, Double.POSITIVE_INFINITY);
+        ProductFilter byStates = new ProductFilter(null, Arrays.asList("NY", "TX"), Double.NEGATIVE_INFINITY, 5);
+        // when
+        List<Integer> byConditionIds;
+        try (Stream<ProductFlyweight> records = read(file, byCondition)) {
+            byConditionIds = records.map(ProductView::getId).collect(Collectors.toList());
+        }
+        List<Integer> byStatesIds;
+        try (Stream<ProductFlyweight> records = read(file, byStates)) {
+            byStatesIds = records.map(ProductView::getId).collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(byConditionIds)
+                .containsExactly(3);
+        Assertions.assertThat(byStatesIds)
+                .containsExactly(1);
+    }
+
+    @Test
+    public void rejectedRecordsMustNotBeAllocated() throws IOException {
+        // given
+        int rowsCount = 500_000;
+        int limit = 1000;
+        Path file = Files.write(tempDir.resolve("input.csv"), IntStream.range(0, rowsCount)
+                .mapToObj(i -> i + ",name " + i + ",new,NY," + (i / 100.0))
+                .collect(Collectors.toList()));
+        readToLimitedSet(file, limit); // warming up
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // when
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        LimitedSortedSet<ProductView> set = readToLimitedSet(file, limit);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        // then
+        Assertions.assertThat(set)
+                .hasSize(limit);
+        Assertions.assertThat(allocated / (rowsCount - limit))
+                .as("bytes allocated per rejected row, %d bytes allocated in total", allocated)
+                .isLessThan(4);
+    }
+
+    private LimitedSortedSet<ProductView> readToLimitedSet(Path file, int limit) throws IOException {
+        LimitedSortedSet<ProductView> set =
+                new LimitedSortedSet<>(Runner.PRODUCTS_COMPARATOR, ProductView::toProduct, limit);
+        try (Stream<ProductFlyweight> records = read(file)) {
+            records.forEach(set::add);
+        }
+        return set;
+    }
+
+    private Stream<ProductFlyweight> read(Path file) throws IOException {
+        Reader reader = Files.newBufferedReader(file);
+        return new CsvCursorRecordsReader<>(ProductFlyweight::new).read(reader);
+    }
+
+    private Stream<ProductFlyweight> read(Path file, ProductFilter filter) throws IOException {
+        Reader reader = Files.newBufferedReader(file);
+        return new CsvCursorRecordsReader<>(ProductFlyweight::new, filter).read(reader);
+    }
+}
@@ -0,0 +1,152 @@
+package com.task.pipeline.producer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class CsvRecordCursorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "\n",
+            "a",
+            "a,b,c",
+            "a,b\nc,d\n",
+            "a,b\r\nc,d\r\n",
+            "a,b\rc,d",
+            "a,b\n\n\r\n\nc,d",
+            ",,\n,",
+            "\"a,b\",\"c\nd\",\"e\"\"f\"\"\"",
+            "\"\",x\"y,\"z\"\r\n1,2,3",
+            "1,name,new,NY,1.5\n2,\"quoted, name\",used,CA,2.25\n"})
+    public void cursorMustReadSameRecordsAsParser(String input) throws IOException {
+        Assertions.assertThat(readWithCursor(input))
+                .isEqualTo(readWithParser(input));
+    }
+
+    @Test
+    public void cursorMustReadRecordsCrossingBufferBoundaries() throws IOException {
+        // given
+        StringBuilder input = new StringBuilder();
+        char[] longField = new char[100_000];
+        Arrays.fill(longField, 'x');
+        for (int i = 0; i < 10_000; i++) {
+            input.append(i).append(",\"na\"\"me\",").append(i % 100 == 0 ? new String(longField) : "s").append("\r\n");
+        }
+        // when
+        List<List<String>> records = readWithCursor(input.toString());
+        // then
+        Assertions.assertThat(records)
+                .isEqualTo(readWithParser(input.toString()));
+    }
+
+    @Test
+    public void cursorMustReadRecordsFromReaderReturningSingleCharacters() throws IOException {
+        // given
+        String input = "1,name,new,NY,1.5\r\n\r\n2,\"quoted\r\n\"\"name\"\"\",used,CA,2.25\r\r\n3,x,y,z,0\r";
+        Reader reader = new FilterReader(new StringReader(input)) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        // when
+        List<List<String>> records = readWithCursor(reader);
+        // then
+        Assertions.assertThat(records)
+                .isEqualTo(readWithParser(input));
+    }
+
+    @Test
+    public void cursorMustSkipRecordsWithCharactersAfterClosingQuote() throws IOException {
+        Assertions.assertThat(readWithCursor("1,\"a\"b,c\n2,d,e"))
+                .containsExactly(Arrays.asList("2", "d", "e"));
+    }
+
+    @Test
+    public void cursorMustSkipRecordWithQuotedFieldNotClosedAtEndOfInput() throws IOException {
+        Assertions.assertThat(readWithCursor("1,a,b\n2,\"c,d\ne"))
+                .containsExactly(Arrays.asList("1", "a", "b"));
+    }
+
+    @Test
+    public void numericFieldsMustBeParsedAsByStandardMethods() throws IOException {
+        // given
+        List<String> values = new ArrayList<>(Arrays.asList(
+                "0", "-0", "+7", "2147483647", "-2147483648", "2147483648", "007", "00000000001",
+                "1.", ".5", "-.5", "1.10", "0.1", "123456789.012345", "1234567890.12345678", "1e3", "NaN",
+                "", "-", "+", ".", "1.2.3", "abc", " 1"));
+        for (int i = 0; i < 1000; i++) {
+            values.add(String.format("%.2f", ThreadLocalRandom.current().nextDouble(10_000)));
+            values.add(String.valueOf(ThreadLocalRandom.current().nextDouble()));
+        }
+        CsvRecordCursor cursor = new CsvRecordCursor(new StringReader(String.join("\n", values)
+                .replace("\n\n", "\n\"\"\n")));
+        // when-then
+        for (String value : values) {
+            Assertions.assertThat(cursor.next())
+                    .isTrue();
+            Assertions.assertThat(parse(() -> cursor.getInt(0)))
+                    .isEqualTo(parse(() -> Integer.parseInt(value)));
+            Assertions.assertThat(parse(() -> cursor.getDouble(0)))
+                    .isEqualTo(parse(() -> Double.parseDouble(value)));
+        }
+    }
+
+    private static Object parse(NumberSupplier supplier) {
+        try {
+            return supplier.get();
+        } catch (NumberFormatException e) {
+            return NumberFormatException.class;
+        }
+    }
+
+    private static List<List<String>> readWithCursor(String input) throws IOException {
+        return readWithCursor(new StringReader(input));
+    }
+
+    private static List<List<String>> readWithCursor(Reader input) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvRecordCursor cursor = new CsvRecordCursor(input)) {
+            while (cursor.next()) {
+                List<String> record = new ArrayList<>();
+                for (int i = 0; i < cursor.getFieldsCount(); i++) {
+                    record.add(cursor.getString(i));
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static List<List<String>> readWithParser(String input) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CSVParser parser = CSVParser.parse(input, CSVFormat.DEFAULT)) {
+            for (CSVRecord csvRecord : parser) {
+                List<String> record = new ArrayList<>();
+                csvRecord.forEach(record::add);
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @FunctionalInterface
+    private interface NumberSupplier {
+        Number get();
+    }
+}
@@ -0,0 +1,134 @@
+package com.task.pipeline.producer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class FromDirCsvFilesProducerTest {
+
+    private static final int FILES_COUNT = 10;
+    private static final int FILE_SIZE = 1000;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void createFiles() throws IOException {
+        for (int i = 0; i < FILES_COUNT; i++) {
+            Files.write(tempDir.resolve(i + ".csv"), IntStream.range(0, FILE_SIZE)
+                    .mapToObj(row -> row + ",name,new,NY," + row)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void producerMustReadAllRecordsAndReportCompleteCoverage() throws IOException {
+        // given
+        FromDirCsvFilesProducer<String> producer = FromDirCsvFilesProducer.withDefaultFormat(record -> record.get(0), tempDir);
+        // when
+        List<String> produced;
+        try (Stream<? extends String> entities = producer.produce()) {
+            produced = entities.parallel().collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(produced)
+                .hasSize(FILES_COUNT * FILE_SIZE);
+        Assertions.assertThat(producer.getCoverage().getCompletedFiles())
+                .isEqualTo(FILES_COUNT);
+        Assertions.assertThat(producer.getCoverage().isComplete())
+                .isTrue();
+    }
+
+    @Test
+    public void producerMustStopAndReportPartialCoverageIfDeadlinePassed() throws IOException {
+        // given
+        FromDirCsvFilesProducer<String> producer = FromDirCsvFilesProducer.withDefaultFormat(CSVRecord::toString, tempDir);
+        // when
+        List<String> produced;
+        try (Stream<? extends String> entities = producer.produce(Instant.now().minus(1, ChronoUnit.SECONDS))) {
+            produced = entities.parallel().collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(produced)
+                .isEmpty();
+        Assertions.assertThat(producer.getCoverage().getCompletedFiles())
+                .isZero();
+        Assertions.assertThat(producer.getCoverage().isComplete())
+                .isFalse();
+    }
+
+    @Test
+    public void producerMustCloseFilesCutShortByDeadline() throws IOException {
+        // given
+        AtomicInteger openedReaders = new AtomicInteger();
+        AtomicInteger closedReaders = new AtomicInteger();
+        RecordsReader<String> slowReader = reader -> {
+            openedReaders.incrementAndGet();
+            return new CsvParserRecordsReader<String>(record -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                return record.get(0);
+            }, CSVFormat.DEFAULT).read(new FilterReader(reader) {
+                @Override
+                public void close() throws IOException {
+                    closedReaders.incrementAndGet();
+                    super.close();
+                }
+            });
+        };
+        FromDirCsvFilesProducer<String> producer = new FromDirCsvFilesProducer<>(slowReader,
+                ParallelFileFinder.withDefaultPatterns(tempDir), 1024, 2, null);
+        // when
+        List<String> produced;
+        try (Stream<? extends String> entities = producer.produce(Instant.now().plus(200, ChronoUnit.MILLIS))) {
+            produced = entities.parallel().collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(produced)
+                .isNotEmpty()
+                .hasSizeLessThan(FILES_COUNT * FILE_SIZE);
+        Assertions.assertThat(producer.getCoverage().getInterruptedFiles())
+                .isPositive();
+        Assertions.assertThat(closedReaders.get())
+                .isPositive()
+                .isEqualTo(openedReaders.get());
+        Assertions.assertThat(producer.getCoverage().isComplete())
+                .isFalse();
+    }
+
+    @Test
+    public void producerMustCountFilesFailedToBeParsedAndReportPartialCoverage() throws IOException {
+        // given
+        FromDirCsvFilesProducer<String> producer = new FromDirCsvFilesProducer<>(reader -> {
+            throw new IOException("Failure");
+        }, ParallelFileFinder.withDefaultPatterns(tempDir), 1024, 2, null);
+        // when
+        List<String> produced;
+        try (Stream<? extends String> entities = producer.produce()) {
+            produced = entities.parallel().collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(produced)
+                .isEmpty();
+        Assertions.assertThat(producer.getCoverage().getFailedFiles())
+                .isEqualTo(FILES_COUNT);
+        Assertions.assertThat(producer.getCoverage().isComplete())
+                .isFalse();
+    }
+}
@@ -0,0 +1,182 @@
+package com.task.pipeline.producer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ParallelFileFinderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void createFiles() throws IOException {
+        for (String path : Arrays.asList("a.csv", "b.txt", "2019/c.csv", "2019/eu/d.csv", "2020/e.csv", "2020/us/f.csv")) {
+            Path file = tempDir.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.createFile(file);
+        }
+    }
+
+    @Test
+    public void nonRecursiveSearchMustFindOnlyMatchingTopLevelFiles() throws IOException {
+        // given
+        ParallelFileFinder finder = ParallelFileFinder.withDefaultPatterns(tempDir);
+        // when
+        List<String> found = find(finder);
+        // then
+        Assertions.assertThat(found)
+                .containsExactlyInAnyOrder("a.csv");
+    }
+
+    @Test
+    public void recursiveSearchMustFindMatchingFilesInSubdirectories() throws IOException {
+        // given
+        ParallelFileFinder finder = ParallelFileFinder.of(tempDir, true, "**.csv", Collections.emptyList());
+        // when
+        List<String> found = find(finder);
+        // then
+        Assertions.assertThat(found)
+                .containsExactlyInAnyOrder("a.csv", "2019/c.csv", "2019/eu/d.csv", "2020/e.csv", "2020/us/f.csv");
+    }
+
+    @Test
+    public void recursiveSearchMustSkipExcludedFilesAndSubdirectories() throws IOException {
+        // given
+        ParallelFileFinder finder = ParallelFileFinder.of(tempDir, true, "**.csv", Arrays.asList("2019", "*/us/*"));
+        // when
+        List<String> found = find(finder);
+        // then
+        Assertions.assertThat(found)
+                .containsExactlyInAnyOrder("a.csv", "2020/e.csv");
+    }
+
+    @Test
+    public void parallelSearchMustFindEachFileOnce() throws IOException {
+        // given
+        ParallelFileFinder finder = ParallelFileFinder.of(tempDir, true, "**", Collections.emptyList());
+        // when
+        List<Path> found;
+        try (Stream<Path> files = finder.find()) {
+            found = files.parallel().collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(found)
+                .hasSize(6)
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void parallelSearchMustHoldBoundedNumberOfPartialResults() throws IOException {
+        // given
+        Path dir = Files.createDirectory(tempDir.resolve("many"));
+        for (int i = 0; i < 2000; i++) {
+            Files.createFile(dir.resolve(i + ".csv"));
+        }
+        ParallelFileFinder finder = ParallelFileFinder.withDefaultPatterns(dir);
+        AtomicInteger live = new AtomicInteger();
+        AtomicInteger maxLive = new AtomicInteger();
+        // when
+        List<Path> found;
+        try (Stream<Path> files = finder.find()) {
+            found = files.parallel().collect(Collector.<Path, List<Path>>of(
+                    () -> {
+                        maxLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+                        return new ArrayList<>();
+                    },
+                    List::add,
+                    (left, right) -> {
+                        live.decrementAndGet();
+                        left.addAll(right);
+                        return left;
+                    },
+                    Collector.Characteristics.UNORDERED));
+        }
+        // then
+        Assertions.assertThat(found)
+                .hasSize(2000)
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(maxLive.get())
+                .isLessThanOrEqualTo(ForkJoinPool.getCommonPoolParallelism() + 1);
+    }
+
+    @Test
+    public void searchInOrderMustStopOncePassedDeadline() throws IOException {
+        // given
+        ParallelFileFinder finder = ParallelFileFinder.of(tempDir, true, "**", Collections.emptyList());
+        AtomicBoolean expired = new AtomicBoolean();
+        // when
+        List<Path> found;
+        try (Stream<Path> files = finder.findInOrder(Instant.now().minusSeconds(1), () -> expired.set(true))) {
+            found = files.collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(found)
+                .isEmpty();
+        Assertions.assertThat(expired)
+                .isTrue();
+    }
+
+    @Test
+    public void searchInOrderMustFindAllFilesBeforeDeadline() throws IOException {
+        // given
+        ParallelFileFinder finder = ParallelFileFinder.of(tempDir, true, "**.csv", Collections.emptyList());
+        AtomicBoolean expired = new AtomicBoolean();
+        // when
+        List<String> found;
+        try (Stream<Path> files = finder.findInOrder(Instant.now().plusSeconds(60), () -> expired.set(true))) {
+            found = files.map(file -> tempDir.relativize(file).toString()
+                    .replace(file.getFileSystem().getSeparator(), "/"))
+                    .collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(found)
+                .containsExactly("2019/c.csv", "2019/eu/d.csv", "2020/e.csv", "2020/us/f.csv", "a.csv");
+        Assertions.assertThat(expired)
+                .isFalse();
+    }
+
+    @Test
+    public void searchMustFailIfDirectoryCanNotBeListed() throws IOException {
+        // given
+        Files.setPosixFilePermissions(tempDir, PosixFilePermissions.fromString("-wx------"));
+        try {
+            Assumptions.assumeFalse(Files.isReadable(tempDir), "directory permissions are not enforced");
+            ParallelFileFinder finder = ParallelFileFinder.withDefaultPatterns(tempDir);
+            // when
+            // then
+            Assertions.assertThatThrownBy(() -> find(finder))
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasCauseInstanceOf(AccessDeniedException.class);
+        } finally {
+            Files.setPosixFilePermissions(tempDir, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    private List<String> find(ParallelFileFinder finder) throws IOException {
+        try (Stream<Path> files = finder.find()) {
+            return files.map(file -> tempDir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.task.pipeline.producer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ReadAheadFileInputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"0, 16, 2", "1, 16, 1", "1000, 16, 3", "1024, 256, 2", "100000, 4096, 4"})
+    public void streamMustReturnFileContent(int fileSize, int bufferSize, int readAheadDepth) throws IOException {
+        // given
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        Path file = Files.write(tempDir.resolve("input"), content);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] chunk = new byte[bufferSize / 3 + 1];
+        // when
+        LongAdder readBytes = new LongAdder();
+        try (InputStream input = new ReadAheadFileInputStream(file, bufferSize, readAheadDepth, new LongAdder(), readBytes)) {
+            int single = input.read();
+            if (single >= 0) {
+                output.write(single);
+            }
+            int count;
+            while ((count = input.read(chunk)) >= 0) {
+                output.write(chunk, 0, count);
+            }
+        }
+        // then
+        Assertions.assertThat(output.toByteArray())
+                .isEqualTo(content);
+        Assertions.assertThat(readBytes.sum())
+                .isEqualTo(fileSize);
+    }
+}
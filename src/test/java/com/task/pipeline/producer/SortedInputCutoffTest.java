@@ -0,0 +1,44 @@
+package com.task.pipeline.producer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SortedInputCutoffTest {
+
+    @Test
+    public void readingMustEndOnceSortedKeyExceedsCutoffAndCloseSource() {
+        // given
+        SortedInputCutoff<Double> cutoff = new SortedInputCutoff<>(Double::doubleValue, () -> 3, 2);
+        AtomicBoolean closed = new AtomicBoolean();
+        // when
+        List<Double> read;
+        try (Stream<Double> entities = cutoff.bound(Stream.of(1.0, 2.0, 3.0, 3.0, 4.0, 0.0)
+                .onClose(() -> closed.set(true)))) {
+            read = entities.collect(Collectors.toList());
+        }
+        // then
+        Assertions.assertThat(read)
+                .containsExactly(1.0, 2.0, 3.0, 3.0);
+        Assertions.assertThat(closed)
+                .isTrue();
+    }
+
+    @Test
+    public void readingMustNotEndWithinProbeOrIfOrderIsBroken() {
+        // given
+        SortedInputCutoff<Double> cutoff = new SortedInputCutoff<>(Double::doubleValue, () -> 3, 2);
+        // when
+        List<Double> withinProbe = cutoff.bound(Stream.of(5.0, 6.0, 7.0)).collect(Collectors.toList());
+        List<Double> unsorted = cutoff.bound(Stream.of(1.0, 0.0, 4.0, 5.0)).collect(Collectors.toList());
+        // then
+        Assertions.assertThat(withinProbe)
+                .containsExactly(5.0, 6.0);
+        Assertions.assertThat(unsorted)
+                .containsExactly(1.0, 0.0, 4.0, 5.0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.task.pipeline.sampling;
+
+import com.task.entity.SimpleEntity;
+import com.task.pipeline.EntitiesPipeline;
+import com.task.pipeline.EntitiesProcessor;
+import com.task.pipeline.SimpleEntityFiles;
+import com.task.pipeline.producer.FromDirCsvFilesProducer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SampledCutoffEstimatorTest {
+
+    private static final int FILES_COUNT = 100;
+    private static final int FILE_SIZE = 1000;
+    private static final int GROUP_LIMIT = 3;
+    private static final int TOTAL_LIMIT = 100;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void createFiles() throws IOException {
+        for (int i = 0; i < FILES_COUNT; i++) {
+            SimpleEntityFiles.write(tempDir.resolve(i + ".csv"), SimpleEntityFiles.randomEntities(FILE_SIZE));
+        }
+    }
+
+    @Test
+    public void estimatedFilterMustRejectMostOfInputButKeepResultUnchanged() throws Exception {
+        // given
+        SampledCutoffEstimator<SimpleEntity, Integer> estimator = estimator(producer());
+        List<String> expected = new ArrayList<>();
+        new EntitiesPipeline<>(producer(), processor(), SimpleEntityFiles.keysCollector(expected))
+                .execute();
+        // when
+        Predicate<SimpleEntity> filter = estimator.estimateFilter();
+        List<String> actual = new ArrayList<>();
+        new EntitiesPipeline<>(producer(), processor(), SimpleEntityFiles.keysCollector(actual), null, null, estimator)
+                .execute();
+        // then
+        Assertions.assertThat(filter)
+                .isNotNull();
+        long passedCount;
+        try (Stream<? extends SimpleEntity> entities = producer().produce()) {
+            passedCount = entities.filter(filter).count();
+        }
+        Assertions.assertThat(passedCount)
+                .isBetween((long) TOTAL_LIMIT, FILES_COUNT * FILE_SIZE / 10L);
+        Assertions.assertThat(actual)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void estimationMustScaleSampleByInputFilesSizes() throws Exception {
+        // given
+        Path dir = Files.createDirectory(tempDir.resolve("uneven"));
+        SimpleEntityFiles.write(dir.resolve("large.csv"),
+                SimpleEntityFiles.randomEntities(FILES_COUNT * FILE_SIZE));
+        for (int i = 0; i < 9; i++) {
+            SimpleEntityFiles.write(dir.resolve(i + ".csv"), SimpleEntityFiles.randomEntities(1));
+        }
+        SampledCutoffEstimator<SimpleEntity, Integer> estimator = estimator(SimpleEntityFiles.producer(dir));
+        // when
+        Predicate<SimpleEntity> filter = estimator.estimateFilter();
+        // then
+        Assertions.assertThat(filter)
+                .isNotNull();
+        List<SimpleEntity> result;
+        try (Stream<? extends SimpleEntity> entities = SimpleEntityFiles.producer(dir).produce();
+             Stream<? extends SimpleEntity> output = processor().process(entities.filter(filter))) {
+            result = output.collect(Collectors.toList());
+        }
+        Assertions.assertThat(result)
+                .hasSize(TOTAL_LIMIT);
+    }
+
+    private FromDirCsvFilesProducer<SimpleEntity> producer() {
+        return SimpleEntityFiles.producer(tempDir);
+    }
+
+    private static SampledCutoffEstimator<SimpleEntity, Integer> estimator(
+            FromDirCsvFilesProducer<SimpleEntity> producer) {
+        return new SampledCutoffEstimator<>(producer, SimpleEntity::getId, SimpleEntity.COMPARATOR,
+                Function.identity(), GROUP_LIMIT, TOTAL_LIMIT, 0.2);
+    }
+
+    private static EntitiesProcessor<SimpleEntity> processor() {
+        return SimpleEntityFiles.processor(GROUP_LIMIT, TOTAL_LIMIT);
+    }
+}
@@ -0,0 +1,186 @@
+package com.task.server;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class QueryServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private QueryServer server;
+
+    @BeforeEach
+    public void createFilesAndServer() throws IOException {
+        Files.createDirectory(tempDir.resolve("input"));
+        for (int i = 0; i < 10; i++) {
+            Files.write(tempDir.resolve("input").resolve(i + ".csv"), IntStream.range(0, 1000)
+                    .mapToObj(row -> ThreadLocalRandom.current().nextInt(100) + ",name,new,NY,"
+                            + ThreadLocalRandom.current().nextInt(100_000) / 100.0)
+                    .collect(Collectors.toList()));
+        }
+        server = new QueryServer(ServerConfiguration.parse(new String[0]));
+    }
+
+    @Test
+    public void queriesServedFromCachedSummariesMustGiveSameResultsAsReadingFiles() throws IOException {
+        // given
+        String[] uncachedQuery = {"-i", "input", "-o", "expected.csv", "-g", "3", "-l", "100", "-d", "600000"};
+        String[] initialQuery = {"-i", "input", "-o", "initial.csv", "-g", "3", "-l", "200"};
+        String[] cachedQuery = {"-i", "input", "-o", "cached.csv", "-g", "3", "-l", "100"};
+        // when
+        int uncachedStatus = query(uncachedQuery);
+        ByteArrayOutputStream initialOutput = new ByteArrayOutputStream();
+        int initialStatus = server.query(tempDir.toString(), initialQuery, new PrintStream(initialOutput, true));
+        ByteArrayOutputStream cachedOutput = new ByteArrayOutputStream();
+        int cachedStatus = server.query(tempDir.toString(), cachedQuery, new PrintStream(cachedOutput, true));
+        // then
+        Assertions.assertThat(new int[]{uncachedStatus, initialStatus, cachedStatus})
+                .containsOnly(0);
+        Assertions.assertThat(initialOutput.toString())
+                .contains("10 files completed, 0 files served from cache, 0 files failed, result is final");
+        Assertions.assertThat(cachedOutput.toString())
+                .contains("0 files completed, 10 files served from cache, 0 files failed, result is final");
+        List<String> expected = Files.readAllLines(tempDir.resolve("expected.csv"));
+        Assertions.assertThat(Files.readAllLines(tempDir.resolve("cached.csv")))
+                .hasSize(100)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void queryMissingListedFileMustGivePartialResult() throws IOException {
+        // given
+        String[] initialQuery = {"-i", "input", "-o", "initial.csv", "-g", "3", "-l", "100"};
+        String[] query = {"-i", "input", "-o", "output.csv", "-g", "3", "-l", "200"};
+        int initialStatus = query(initialQuery);
+        Path dir = tempDir.resolve("input");
+        FileTime dirModifiedTime = Files.getLastModifiedTime(dir);
+        Files.delete(dir.resolve("0.csv"));
+        Files.setLastModifiedTime(dir, dirModifiedTime); // keeps the cached listing with the deleted file valid
+        // when
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int status = server.query(tempDir.toString(), query, new PrintStream(output, true));
+        // then
+        Assertions.assertThat(new int[]{initialStatus, status})
+                .containsOnly(0);
+        Assertions.assertThat(output.toString())
+                .contains("9 files completed, 0 files served from cache, 1 files failed, result is partial");
+    }
+
+    @Test
+    public void queryWithCheckpointsMustBeProcessedFromFiles() throws IOException {
+        // given
+        String[] plainQuery = {"-i", "input", "-o", "expected.csv", "-g", "3", "-l", "100"};
+        String[] checkpointedQuery = {"-i", "input", "-o", "checkpointed.csv", "-g", "3", "-l", "100",
+                "--checkpoint-interval", "1"};
+        // when
+        int plainStatus = query(plainQuery);
+        int checkpointedStatus = query(checkpointedQuery);
+        // then
+        Assertions.assertThat(new int[]{plainStatus, checkpointedStatus})
+                .containsOnly(0);
+        Assertions.assertThat(Files.readAllLines(tempDir.resolve("checkpointed.csv")))
+                .isEqualTo(Files.readAllLines(tempDir.resolve("expected.csv")));
+        Assertions.assertThat(tempDir.resolve("checkpointed.csv.checkpoint"))
+                .doesNotExist();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SO", "LLO"})
+    public void sortedInputReadingMustEndAtProcessorCutoff(String processor) throws IOException {
+        // given
+        Path sortedFile = Files.createDirectory(tempDir.resolve("sorted")).resolve("sorted.csv");
+        Files.write(sortedFile, IntStream.range(0, 20_000)
+                .mapToObj(row -> ThreadLocalRandom.current().nextInt(100) + ",name,new,NY," + row / 100.0)
+                .collect(Collectors.toList()));
+        String[] plainQuery = {"-i", "sorted", "-o", "expected.csv", "-g", "3", "-l", "100", "-p", processor};
+        String[] sortedQuery = {"-i", "sorted", "-o", "sorted.csv", "-g", "3", "-l", "100", "-p", processor,
+                "--sorted-input", "ALL"};
+        // when
+        ByteArrayOutputStream sortedOutput = new ByteArrayOutputStream();
+        int sortedStatus = server.query(tempDir.toString(), sortedQuery, new PrintStream(sortedOutput, true));
+        int plainStatus = query(plainQuery);
+        // then
+        Assertions.assertThat(new int[]{plainStatus, sortedStatus})
+                .containsOnly(0);
+        Assertions.assertThat(Files.readAllLines(tempDir.resolve("sorted.csv")))
+                .hasSize(100)
+                .isEqualTo(Files.readAllLines(tempDir.resolve("expected.csv")));
+        Matcher readBytes = Pattern.compile("(\\d+) bytes read").matcher(sortedOutput.toString());
+        Assertions.assertThat(readBytes.find())
+                .isTrue();
+        Assertions.assertThat(Long.parseLong(readBytes.group(1)))
+                .isLessThan(Files.size(sortedFile) / 2);
+    }
+
+    @Test
+    public void invalidQueryMustFailWithoutProcessing() {
+        Assertions.assertThat(query(new String[]{"-i", "input"}))
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void queryMustKeepEmptyArguments() throws IOException {
+        // given
+        String request = String.join("\n", QueryServer.escape(tempDir.toString()), "6",
+                "-i", "input", "--condition", "", "-o", "output.csv") + "\n";
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        // when
+        server.handle(new BufferedReader(new StringReader(request)), new PrintStream(response, true));
+        // then
+        Assertions.assertThat(response.toString())
+                .endsWith(QueryServer.EXIT_STATUS_PREFIX + 0 + System.lineSeparator());
+        Assertions.assertThat(Files.readAllLines(tempDir.resolve("output.csv")))
+                .isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "1025", "2147483647", "x"})
+    public void queryWithInvalidArgumentsCountMustFailWithoutReadingArguments(String argsCount) throws IOException {
+        // given
+        String request = String.join("\n", QueryServer.escape(tempDir.toString()), argsCount) + "\n";
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        // when
+        server.handle(new BufferedReader(new StringReader(request)), new PrintStream(response, true));
+        // then
+        Assertions.assertThat(response.toString())
+                .startsWith("Invalid arguments count: " + argsCount)
+                .endsWith(QueryServer.EXIT_STATUS_PREFIX + 1 + System.lineSeparator());
+    }
+
+    @Test
+    public void escapedArgumentMustBeRestored() {
+        // given
+        String arg = "a\\b\nc\rd\\n";
+        // when
+        String escaped = QueryServer.escape(arg);
+        // then
+        Assertions.assertThat(escaped)
+                .doesNotContain("\n", "\r");
+        Assertions.assertThat(QueryServer.unescape(escaped))
+                .isEqualTo(arg);
+    }
+
+    private int query(String[] args) {
+        return server.query(tempDir.toString(), args, new PrintStream(new ByteArrayOutputStream(), true));
+    }
+}